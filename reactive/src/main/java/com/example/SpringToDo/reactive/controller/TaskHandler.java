@@ -0,0 +1,109 @@
+package com.example.SpringToDo.reactive.controller;
+
+import com.example.SpringToDo.dto.TaskCreateDTO;
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.reactive.service.ReactiveTaskService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Обработчики /api/v1/tasks с тем же контрактом, что TaskController основного приложения.
+ * Списки отдаются потоком: JSON-массив пишется по мере чтения строк, application/x-ndjson — построчно,
+ * и чтение из базы идёт со скоростью, с которой клиент забирает ответ.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskHandler {
+    private final ReactiveTaskService taskService;
+    private final Validator validator;
+
+    public Mono<ServerResponse> createTask(ServerRequest request) {
+        return request.bodyToMono(TaskCreateDTO.class)
+                .switchIfEmpty(missingBody())
+                .map(this::validate)
+                .flatMap(taskService::createTask)
+                .then(ServerResponse.status(HttpStatus.CREATED).build());
+    }
+
+    public Mono<ServerResponse> updateTask(ServerRequest request) {
+        return id(request).flatMap(id -> request.bodyToMono(TaskDTO.class)
+                .switchIfEmpty(missingBody())
+                .map(this::validate)
+                .flatMap(dto -> taskService.updateTask(id, dto)))
+                .flatMap(updated -> ServerResponse.ok().bodyValue(updated));
+    }
+
+    public Mono<ServerResponse> deleteTask(ServerRequest request) {
+        return id(request).flatMap(taskService::deleteTask)
+                .then(ServerResponse.noContent().build());
+    }
+
+    public Mono<ServerResponse> getTaskById(ServerRequest request) {
+        return id(request).flatMap(taskService::getTaskById)
+                .flatMap(dto -> ServerResponse.ok().bodyValue(dto));
+    }
+
+    //ошибки разбора параметров — сигналом Mono, чтобы их поймали onError в TaskRouter
+    public Mono<ServerResponse> getAllTasks(ServerRequest request) {
+        return Mono.defer(() -> listTasks(request));
+    }
+
+    private Mono<ServerResponse> listTasks(ServerRequest request) {
+        TaskStatus status = request.queryParam("status").map(TaskStatus::valueOf).orElse(null);
+        String sort = request.queryParam("sort").orElse(null);
+
+        Flux<TaskDTO> tasks;
+        if (status != null) {
+            tasks = taskService.filterTasksByStatus(status);
+        } else if ("dueDate".equalsIgnoreCase(sort)) {
+            tasks = taskService.getAllTasksSortedByDueDate();
+        } else if ("status".equalsIgnoreCase(sort)) {
+            tasks = taskService.getAllTasksSortedByStatus();
+        } else {
+            tasks = taskService.getAllTasks();
+        }
+        MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(mediaType).body(tasks, TaskDTO.class);
+    }
+
+    private static Mono<Integer> id(ServerRequest request) {
+        String id = request.pathVariable("id");
+        try {
+            return Mono.just(Integer.parseInt(id));
+        } catch (NumberFormatException e) {
+            return Mono.error(new IllegalArgumentException("Invalid task id: " + id));
+        }
+    }
+
+    //без тела bodyToMono завершается пустым; сервлетный API в этом случае отвечает 400
+    private static <T> Mono<T> missingBody() {
+        return Mono.error(new ServerWebInputException("Request body is missing"));
+    }
+
+    //аналог @Valid: ошибки аннотаций DTO уходят клиентом как 400
+    private <T> T validate(T dto) {
+        Set<ConstraintViolation<T>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return dto;
+    }
+}
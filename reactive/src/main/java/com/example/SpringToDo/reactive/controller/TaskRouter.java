@@ -0,0 +1,36 @@
+package com.example.SpringToDo.reactive.controller;
+
+import com.example.SpringToDo.reactive.exception.TaskNotFoundException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+
+@Configuration
+public class TaskRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> taskRoutes(TaskHandler handler) {
+        return RouterFunctions.route()
+                .path("/api/v1/tasks", builder -> builder
+                        .POST("", handler::createTask)
+                        .GET("", handler::getAllTasks)
+                        .GET("/{id}", handler::getTaskById)
+                        .PUT("/{id}", handler::updateTask)
+                        .DELETE("/{id}", handler::deleteTask))
+                //коды ответов как у GlobalExceptionHandler основного приложения
+                .onError(TaskNotFoundException.class, (e, request) ->
+                        ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue(e.getMessage()))
+                .onError(IllegalArgumentException.class, (e, request) ->
+                        ServerResponse.status(HttpStatus.BAD_REQUEST).bodyValue(e.getMessage()))
+                .onError(ServerWebInputException.class, (e, request) ->
+                        ServerResponse.status(HttpStatus.BAD_REQUEST).bodyValue(e.getReason()))
+                .onError(OptimisticLockingFailureException.class, (e, request) ->
+                        ServerResponse.status(HttpStatus.CONFLICT).bodyValue(e.getMessage()))
+                .build();
+    }
+}
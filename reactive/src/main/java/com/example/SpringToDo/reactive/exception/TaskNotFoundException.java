@@ -0,0 +1,7 @@
+package com.example.SpringToDo.reactive.exception;
+
+public class TaskNotFoundException extends RuntimeException {
+    public TaskNotFoundException(int id) {
+        super("Task with id " + id + " not found");
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.SpringToDo.reactive.mapper;
+
+import com.example.SpringToDo.dto.TaskCreateDTO;
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.reactive.model.Task;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TaskMapper {
+
+    public TaskDTO toDto(Task task) {
+        return new TaskDTO(
+                task.getId(),
+                task.getTitle(),
+                task.getDescription(),
+                task.getDueDate(),
+                task.getStatus(),
+                task.getVersion()
+        );
+    }
+
+    public Task toEntity(TaskCreateDTO dto) {
+        Task task = new Task();
+        task.setTitle(dto.getTitle());
+        task.setDescription(dto.getDescription());
+        task.setDueDate(dto.getDueDate());
+        task.setStatus(dto.getStatus());
+        return task;
+    }
+}
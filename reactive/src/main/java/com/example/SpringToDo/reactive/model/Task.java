@@ -0,0 +1,46 @@
+package com.example.SpringToDo.reactive.model;
+
+import com.example.SpringToDo.model.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+//та же таблица, что у JPA-сущности Task основного приложения; классы разные: здесь новая задача — version == null,
+//а id выдаётся до INSERT; у JPA-сущности новая задача — id 0, версия примитивная
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("task")
+public class Task {
+    //id выдаёт TaskIdAllocator из последовательности task_seq до INSERT
+    @Id
+    private Integer id;
+
+    private String title;
+    private String description;
+    private LocalDate dueDate;
+    private TaskStatus status;
+
+    //null — новая задача, INSERT; иначе UPDATE ... WHERE version = ?
+    @Version
+    private Long version;
+
+    //момент перехода в DONE, по нему архивация основного приложения считает возраст задачи
+    private Instant completedAt;
+
+    //как у JPA-сущности: время выполнения ставится только при переходе в DONE; чтение из базы идёт мимо сеттера
+    public void setStatus(TaskStatus status) {
+        if (status != TaskStatus.DONE) {
+            completedAt = null;
+        } else if (this.status != TaskStatus.DONE) {
+            completedAt = Instant.now();
+        }
+        this.status = status;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.SpringToDo.reactive.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Выдаёт id из последовательности task_seq так же, как pooled-оптимизатор Hibernate в основном приложении:
+ * значение V последовательности резервирует диапазон (V - 50, V], поэтому оба приложения могут писать в одну таблицу.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskIdAllocator {
+    //должен совпадать с allocationSize у Task в основном приложении
+    static final int ALLOCATION_SIZE = 50;
+
+    private final DatabaseClient databaseClient;
+    private final AtomicReference<Block> block = new AtomicReference<>(new Block(1, 0));
+
+    public Mono<Integer> nextId() {
+        return Mono.defer(() -> {
+            int id = block.get().take();
+            if (id > 0) {
+                return Mono.just(id);
+            }
+            return databaseClient.sql("SELECT nextval('task_seq')")
+                    .map(row -> row.get(0, Long.class))
+                    .one()
+                    .flatMap(hi -> {
+                        //первое значение последовательности (1) Hibernate считает отдельным случаем, берём только его
+                        Block fetched = hi == 1 ? new Block(1, 1) : new Block(hi.intValue() - ALLOCATION_SIZE + 1, hi.intValue());
+                        block.set(fetched);
+                        int taken = fetched.take();
+                        //диапазон успели разобрать параллельные вызовы — просим следующий
+                        return taken > 0 ? Mono.just(taken) : nextId();
+                    });
+        });
+    }
+
+    private static final class Block {
+        private final AtomicInteger next;
+        private final int hi;
+
+        Block(int lo, int hi) {
+            this.next = new AtomicInteger(lo);
+            this.hi = hi;
+        }
+
+        //-1, если диапазон исчерпан
+        int take() {
+            int id = next.getAndIncrement();
+            return id <= hi ? id : -1;
+        }
+    }
+}
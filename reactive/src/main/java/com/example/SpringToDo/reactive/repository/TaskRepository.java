@@ -0,0 +1,17 @@
+package com.example.SpringToDo.reactive.repository;
+
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.reactive.model.Task;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface TaskRepository extends R2dbcRepository<Task, Integer> {
+
+    Flux<Task> findAllByOrderById();
+
+    Flux<Task> findByStatusOrderById(TaskStatus status);
+
+    Flux<Task> findAllByOrderByDueDateAscIdAsc();
+}
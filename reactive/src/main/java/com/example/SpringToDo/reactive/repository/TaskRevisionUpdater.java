@@ -0,0 +1,31 @@
+package com.example.SpringToDo.reactive.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Поднимает маркер изменений task_revision основного приложения (TaskRevisionTracker) в транзакции записи:
+ * ETag списков основного приложения, прочитанных из базы, меняется и после изменений через этот модуль.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskRevisionUpdater {
+    //должен совпадать с TaskRevision.ID основного приложения
+    static final int REVISION_ID = 1;
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> increment() {
+        return databaseClient.sql("UPDATE task_revision SET revision = revision + 1 WHERE id = :id")
+                .bind("id", REVISION_ID)
+                .fetch()
+                .rowsUpdated()
+                //строку создаёт основное приложение при старте; без него — первая запись здесь
+                .flatMap(rows -> rows > 0 ? Mono.<Void>empty() : databaseClient
+                        .sql("INSERT INTO task_revision (id, revision) VALUES (:id, 1)")
+                        .bind("id", REVISION_ID)
+                        .then());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.SpringToDo.reactive.service;
+
+import com.example.SpringToDo.dto.TaskCreateDTO;
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.model.TaskStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//неблокирующий аналог TaskService основного приложения
+public interface ReactiveTaskService {
+    Mono<TaskDTO> createTask(TaskCreateDTO dto);
+
+    Mono<TaskDTO> updateTask(int id, TaskDTO dto);
+
+    Mono<Void> deleteTask(int id);
+
+    Flux<TaskDTO> getAllTasks();
+
+    Mono<TaskDTO> getTaskById(int id);
+
+    Flux<TaskDTO> filterTasksByStatus(TaskStatus status);
+
+    Flux<TaskDTO> getAllTasksSortedByDueDate();
+
+    Flux<TaskDTO> getAllTasksSortedByStatus();
+}
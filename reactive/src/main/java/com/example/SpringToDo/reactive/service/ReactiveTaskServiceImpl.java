@@ -0,0 +1,120 @@
+package com.example.SpringToDo.reactive.service;
+
+import com.example.SpringToDo.dto.TaskCreateDTO;
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.reactive.exception.TaskNotFoundException;
+import com.example.SpringToDo.reactive.mapper.TaskMapper;
+import com.example.SpringToDo.reactive.model.Task;
+import com.example.SpringToDo.reactive.repository.TaskIdAllocator;
+import com.example.SpringToDo.reactive.repository.TaskRepository;
+import com.example.SpringToDo.reactive.repository.TaskRevisionUpdater;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Пишет в ту же таблицу task, что основное приложение, и в той же транзакции поднимает task_revision.
+ * Состояние основного приложения в памяти (кэш tasks, поиск в памяти, счётчики статистики, индекс todo.index,
+ * напоминания) строится по его собственным событиям и изменений отсюда не видит до своей сверки с базой
+ * или истечения записей кэша.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveTaskServiceImpl implements ReactiveTaskService {
+    private final TaskRepository repository;
+    private final TaskIdAllocator idAllocator;
+    private final TaskRevisionUpdater revisionUpdater;
+    private final TaskMapper taskMapper;
+
+    @Override
+    @Transactional
+    public Mono<TaskDTO> createTask(TaskCreateDTO dto) {
+        Task task = taskMapper.toEntity(dto);
+        return Mono.fromRunnable(() -> validateTask(task))
+                .then(idAllocator.nextId())
+                .flatMap(id -> {
+                    task.setId(id);
+                    return repository.save(task);
+                })
+                .flatMap(saved -> revisionUpdater.increment().thenReturn(saved))
+                .map(taskMapper::toDto);
+    }
+
+    @Override
+    @Transactional
+    public Mono<TaskDTO> updateTask(int id, TaskDTO dto) {
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new TaskNotFoundException(id)))
+                .flatMap(task -> {
+                    task.setTitle(dto.getTitle());
+                    task.setDescription(dto.getDescription());
+                    task.setDueDate(dto.getDueDate());
+                    task.setStatus(dto.getStatus());
+                    //клиент с версией обновляет только ту, что видел; расхождение — OptimisticLockingFailureException
+                    if (dto.getVersion() != null) {
+                        task.setVersion(dto.getVersion());
+                    }
+                    validateTask(task);
+                    return repository.save(task);
+                })
+                .flatMap(saved -> revisionUpdater.increment().thenReturn(saved))
+                .map(taskMapper::toDto);
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> deleteTask(int id) {
+        return repository.existsById(id)
+                .flatMap(exists -> exists
+                        ? repository.deleteById(id).then(revisionUpdater.increment())
+                        : Mono.error(new TaskNotFoundException(id)));
+    }
+
+    @Override
+    public Flux<TaskDTO> getAllTasks() {
+        return repository.findAllByOrderById().map(taskMapper::toDto);
+    }
+
+    @Override
+    public Mono<TaskDTO> getTaskById(int id) {
+        return repository.findById(id)
+                .map(taskMapper::toDto)
+                .switchIfEmpty(Mono.error(() -> new TaskNotFoundException(id)));
+    }
+
+    @Override
+    public Flux<TaskDTO> filterTasksByStatus(TaskStatus status) {
+        return repository.findByStatusOrderById(status).map(taskMapper::toDto);
+    }
+
+    @Override
+    public Flux<TaskDTO> getAllTasksSortedByDueDate() {
+        return repository.findAllByOrderByDueDateAscIdAsc().map(taskMapper::toDto);
+    }
+
+    //порядок статусов — порядок enum, как в основном приложении; следующий запрос начинается после предыдущего
+    @Override
+    public Flux<TaskDTO> getAllTasksSortedByStatus() {
+        return Flux.fromArray(TaskStatus.values())
+                .concatMap(repository::findByStatusOrderById)
+                .map(taskMapper::toDto);
+    }
+
+    //те же правила, что TaskServiceImpl.validateTask
+    static void validateTask(Task task) {
+        if (task.getDueDate() == null) {
+            throw new IllegalArgumentException("Due date cannot be null");
+        }
+        if (task.getDueDate().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Due date cannot be in the past");
+        }
+        if (task.getTitle() == null || task.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Title cannot be null or blank");
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.SpringToDo.reactive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузка на WebFlux + R2DBC с той же смесью запросов и параметрами, что TaskLoadBenchmarkTest основного приложения.
+ * Сравнение: запустить оба с одинаковыми -Dbenchmark.concurrency и -Dbenchmark.requests и сопоставить строки вывода.
+ * Запуск: ./gradlew :reactive:benchmark -Dbenchmark.concurrency=2000 -Dbenchmark.requests=100000
+ * С переменной TODO_PG_R2DBC_URL (например r2dbc:postgresql://localhost:5432/springtodo) нагрузка идёт на PostgreSQL.
+ */
+@Tag("benchmark")
+class ReactiveTaskLoadBenchmarkTest {
+    private static final int SEED_TASKS = 1_000;
+
+    @Test
+    @DisplayName("Пропускная способность и p99 реактивного стека")
+    void reactiveStack() throws Exception {
+        int concurrency = Integer.getInteger("benchmark.concurrency", 1_000);
+        int requests = Integer.getInteger("benchmark.requests", 50_000);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ReactiveApplication.class)
+                .properties(properties())
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            String base = "http://localhost:" + port + "/api/v1/tasks";
+            seed(client, base);
+
+            //прогрев JIT и пула соединений, результаты не учитываются
+            load(client, base, concurrency, Math.max(requests / 10, concurrency));
+            String result = load(client, base, concurrency, requests);
+            System.out.println(result);
+        }
+    }
+
+    private Map<String, Object> properties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("logging.level.root", "WARN");
+        String pgUrl = System.getenv("TODO_PG_R2DBC_URL");
+        if (pgUrl != null && !pgUrl.isBlank()) {
+            properties.put("spring.r2dbc.url", pgUrl);
+            properties.put("spring.r2dbc.username", System.getenv().getOrDefault("TODO_PG_USER", "postgres"));
+            properties.put("spring.r2dbc.password", System.getenv().getOrDefault("TODO_PG_PASSWORD", "postgres"));
+            properties.put("spring.sql.init.mode", "never");
+        }
+        return properties;
+    }
+
+    private void seed(HttpClient client, String base) throws Exception {
+        LocalDate dueDate = LocalDate.now().plusDays(1);
+        String[] statuses = {"TODO", "IN_PROGRESS", "DONE"};
+        for (int i = 0; i < SEED_TASKS; i++) {
+            String body = "{\"title\":\"Task " + i + "\",\"description\":\"Load\",\"dueDate\":\""
+                    + dueDate.plusDays(i % 365) + "\",\"status\":\"" + statuses[i % statuses.length] + "\"}";
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(base))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            assertThat(response.statusCode()).isEqualTo(201);
+        }
+    }
+
+    private String load(HttpClient client, String base, int concurrency, int requests) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[requests];
+        List<Integer> ids = ids(client, base);
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                futures.add(workers.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        URI uri = i % 2 == 0
+                                ? URI.create(base + "/" + ids.get(i % ids.size()))
+                                : URI.create(base + "?status=TODO");
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        assertThat(errors.get()).isZero();
+        Arrays.sort(latencies);
+        return String.format("reactive: concurrency=%d requests=%d errors=%d throughput=%.0f req/s p50=%.2f ms p99=%.2f ms",
+                concurrency, requests, errors.get(), requests / (nanos / 1e9),
+                latencies[(int) Math.min(requests - 1, Math.ceil(requests * 0.50) - 1)] / 1e6,
+                latencies[(int) Math.min(requests - 1, Math.ceil(requests * 0.99) - 1)] / 1e6);
+    }
+
+    //id выдаёт последовательность блоками, поэтому берём реальные id из списка
+    private List<Integer> ids(HttpClient client, String base) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base))
+                        .header("Accept", "application/x-ndjson")
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        List<Integer> ids = new ArrayList<>();
+        for (String line : response.body().split("\n")) {
+            if (!line.isBlank()) {
+                int start = line.indexOf("\"id\":") + 5;
+                int end = line.indexOf(',', start);
+                ids.add(Integer.parseInt(line.substring(start, end).trim()));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.SpringToDo.reactive;
+
+import com.example.SpringToDo.dto.TaskCreateDTO;
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.reactive.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class TaskRouterTest {
+    private static final LocalDate DUE = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void clean() {
+        repository.deleteAll().block();
+    }
+
+    @Test
+    @DisplayName("POST создаёт задачу, GET по id её отдаёт")
+    void createAndGet() {
+        create("Reactive task", TaskStatus.TODO);
+        TaskDTO saved = list(MediaType.APPLICATION_JSON, "").get(0);
+
+        client.get().uri("/api/v1/tasks/{id}", saved.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TaskDTO.class)
+                .value(dto -> {
+                    assertThat(dto.getTitle()).isEqualTo("Reactive task");
+                    assertThat(dto.getVersion()).isZero();
+                });
+    }
+
+    @Test
+    @DisplayName("Список с фильтром по статусу отдаётся потоком NDJSON")
+    void listByStatus_streamsNdjson() {
+        create("A", TaskStatus.TODO);
+        create("B", TaskStatus.DONE);
+        create("C", TaskStatus.TODO);
+
+        Flux<TaskDTO> body = client.get().uri("/api/v1/tasks?status=TODO")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(TaskDTO.class)
+                .getResponseBody();
+
+        StepVerifier.create(body.map(TaskDTO::getTitle))
+                .expectNext("A", "C")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Сортировка по статусу идёт в порядке enum")
+    void listSortedByStatus() {
+        create("done", TaskStatus.DONE);
+        create("todo", TaskStatus.TODO);
+        create("progress", TaskStatus.IN_PROGRESS);
+
+        assertThat(list(MediaType.APPLICATION_JSON, "?sort=status"))
+                .extracting(TaskDTO::getTitle)
+                .containsExactly("todo", "progress", "done");
+    }
+
+    @Test
+    @DisplayName("PUT с устаревшей версией отдаёт 409, без версии — обновляет")
+    void update_checksVersion() {
+        create("Old", TaskStatus.TODO);
+        TaskDTO saved = list(MediaType.APPLICATION_JSON, "").get(0);
+
+        TaskDTO stale = new TaskDTO(saved.getId(), "Stale", "", DUE, TaskStatus.DONE, saved.getVersion() + 1);
+        client.put().uri("/api/v1/tasks/{id}", saved.getId()).bodyValue(stale)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        TaskDTO latest = new TaskDTO(saved.getId(), "New", "", DUE, TaskStatus.DONE, null);
+        client.put().uri("/api/v1/tasks/{id}", saved.getId()).bodyValue(latest)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TaskDTO.class)
+                .value(dto -> assertThat(dto.getVersion()).isEqualTo(saved.getVersion() + 1));
+    }
+
+    @Test
+    @DisplayName("Каждая запись поднимает task_revision основного приложения, отклонённая — нет")
+    void writes_bumpTaskRevision() {
+        long initial = revision();
+        create("Revision", TaskStatus.TODO);
+        TaskDTO saved = list(MediaType.APPLICATION_JSON, "").get(0);
+        assertThat(revision()).isEqualTo(initial + 1);
+
+        TaskDTO stale = new TaskDTO(saved.getId(), "Stale", "", DUE, TaskStatus.DONE, saved.getVersion() + 1);
+        client.put().uri("/api/v1/tasks/{id}", saved.getId()).bodyValue(stale)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+        assertThat(revision()).isEqualTo(initial + 1);
+
+        client.delete().uri("/api/v1/tasks/{id}", saved.getId()).exchange().expectStatus().isNoContent();
+        assertThat(revision()).isEqualTo(initial + 2);
+    }
+
+    @Test
+    @DisplayName("Ошибки: несуществующая задача — 404, пустой заголовок — 400")
+    void errors() {
+        client.get().uri("/api/v1/tasks/{id}", 999_999).exchange().expectStatus().isNotFound();
+        client.delete().uri("/api/v1/tasks/{id}", 999_999).exchange().expectStatus().isNotFound();
+        client.post().uri("/api/v1/tasks").bodyValue(new TaskCreateDTO(" ", "", DUE, TaskStatus.TODO))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("POST и PUT без тела отвечают 400 и ничего не меняют")
+    void missingBody() {
+        create("Reactive task", TaskStatus.TODO);
+        TaskDTO saved = list(MediaType.APPLICATION_JSON, "").get(0);
+
+        client.post().uri("/api/v1/tasks").contentType(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.put().uri("/api/v1/tasks/{id}", saved.getId()).contentType(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(list(MediaType.APPLICATION_JSON, "")).containsExactly(saved);
+    }
+
+    private void create(String title, TaskStatus status) {
+        client.post().uri("/api/v1/tasks")
+                .bodyValue(new TaskCreateDTO(title, "", DUE, status))
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
+    private long revision() {
+        return databaseClient.sql("SELECT COALESCE(MAX(revision), 0) FROM task_revision")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .block();
+    }
+
+    private List<TaskDTO> list(MediaType accept, String query) {
+        return client.get().uri("/api/v1/tasks" + query)
+                .accept(accept)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(TaskDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,17 @@
+-- в PostgreSQL эти объекты создаёт Hibernate основного приложения
+CREATE SEQUENCE IF NOT EXISTS task_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS task (
+    id          INTEGER PRIMARY KEY,
+    title       VARCHAR(255),
+    description VARCHAR(255),
+    due_date    DATE,
+    status      VARCHAR(255),
+    version     BIGINT DEFAULT 0 NOT NULL,
+    completed_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS task_revision (
+    id       INTEGER PRIMARY KEY,
+    revision BIGINT NOT NULL
+);
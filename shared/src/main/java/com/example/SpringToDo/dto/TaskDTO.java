@@ -27,5 +27,12 @@ public class TaskDTO {
 
     @NotNull(message = "Status is required")
     private TaskStatus status;
+
+    //версия для оптимистической блокировки, клиенты без неё могут не передавать
+    private Long version;
+
+    public TaskDTO(int id, String title, String description, LocalDate dueDate, TaskStatus status) {
+        this(id, title, description, dueDate, status, null);
+    }
 }
 
@@ -0,0 +1,105 @@
+package com.example.SpringToDo.controller;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.mapper.TaskProtoMapper;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.proto.Task;
+import com.example.SpringToDo.proto.TaskList;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ответ GET /api/v1/tasks в каждом формате: время кодирования List<TaskDTO> и разбора обратно в List<TaskDTO>,
+ * размер тела — вторичная метрика payloadBytes. Мапперы те же, что у MessageConvertersConfig.
+ * Запуск: ./gradlew jmh -PjmhIncludes=TaskFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskFormatBenchmark {
+
+    @Param({"json", "smile", "cbor", "protobuf"})
+    private String format;
+
+    @Param({"10000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private TaskProtoMapper protoMapper;
+    private List<TaskDTO> tasks;
+    private byte[] encoded;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long payloadBytes;
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        ObjectMapper objectMapper = switch (format) {
+            case "smile" -> json.copyWith(new SmileFactory());
+            case "cbor" -> json.copyWith(new CBORFactory());
+            default -> json;
+        };
+        CollectionType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, TaskDTO.class);
+        writer = objectMapper.writerFor(listType);
+        reader = objectMapper.readerFor(listType);
+        protoMapper = new TaskProtoMapper();
+
+        LocalDate today = LocalDate.now();
+        TaskStatus[] statuses = TaskStatus.values();
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new TaskDTO(i + 1, "Task " + i, "Description " + i, today.plusDays(i % 365),
+                    statuses[i % statuses.length], 0L));
+        }
+        encoded = encode(new Payload());
+    }
+
+    @Benchmark
+    public byte[] encode(Payload payload) throws Exception {
+        byte[] bytes = "protobuf".equals(format)
+                ? protoMapper.toProtoList(tasks).toByteArray()
+                : writer.writeValueAsBytes(tasks);
+        payload.payloadBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<TaskDTO> decode() throws Exception {
+        if ("protobuf".equals(format)) {
+            List<Task> parsed = TaskList.parseFrom(encoded).getTasksList();
+            List<TaskDTO> dtos = new ArrayList<>(parsed.size());
+            for (Task task : parsed) {
+                dtos.add(protoMapper.toDto(task));
+            }
+            return dtos;
+        }
+        return reader.readValue(encoded);
+    }
+}
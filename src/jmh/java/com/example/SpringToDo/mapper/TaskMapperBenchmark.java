@@ -0,0 +1,55 @@
+package com.example.SpringToDo.mapper;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.model.Task;
+import com.example.SpringToDo.model.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость преобразования сущностей в DTO: одна задача и список.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskMapperBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private final TaskMapper taskMapper = new TaskMapper();
+    private List<Task> tasks;
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        TaskStatus[] statuses = TaskStatus.values();
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new Task(i + 1, "Task " + i, "Description " + i, today.plusDays(i % 365), statuses[i % statuses.length]));
+        }
+        task = tasks.get(0);
+    }
+
+    @Benchmark
+    public TaskDTO toDto() {
+        return taskMapper.toDto(task);
+    }
+
+    @Benchmark
+    public List<TaskDTO> toDtoList() {
+        return taskMapper.toDtoList(tasks);
+    }
+}
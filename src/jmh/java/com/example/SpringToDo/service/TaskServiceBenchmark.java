@@ -0,0 +1,107 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.Application;
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskPageDTO;
+import com.example.SpringToDo.model.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Методы чтения TaskServiceImpl на H2 в памяти: контекст Spring без веб-сервера, кэш отключён.
+ * Один прогон на каждое значение rows; 1M строк требует -Xmx из блока jmh в build.gradle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(Map.of(
+                        "spring.datasource.url", "jdbc:h2:mem:jmh-" + rows + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name", "org.h2.Driver",
+                        "spring.datasource.username", "sa",
+                        "spring.datasource.password", "",
+                        "spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto", "create-drop",
+                        "spring.jpa.show-sql", "false",
+                        "spring.cache.type", "none",
+                        "logging.level.root", "WARN"))
+                .run();
+        taskService = context.getBean(TaskService.class);
+        seed();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskDTO> getAllTasks() {
+        return taskService.getAllTasks();
+    }
+
+    @Benchmark
+    public List<TaskDTO> filterTasksByStatus() {
+        return taskService.filterTasksByStatus(TaskStatus.IN_PROGRESS);
+    }
+
+    @Benchmark
+    public List<TaskDTO> getAllTasksSortedByDueDate() {
+        return taskService.getAllTasksSortedByDueDate();
+    }
+
+    @Benchmark
+    public List<TaskDTO> getAllTasksSortedByStatus() {
+        return taskService.getAllTasksSortedByStatus();
+    }
+
+    @Benchmark
+    public TaskPageDTO getTasksPageByDueDate() {
+        return taskService.getTasksPage(null, TaskSort.DUE_DATE, null, 50);
+    }
+
+    private void seed() {
+        LocalDate today = LocalDate.now();
+        TaskStatus[] statuses = TaskStatus.values();
+        List<TaskBatchOperationDTO> operations = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            operations.add(new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.CREATE, null,
+                    "Task " + i, "Description " + i, today.plusDays(i % 365), statuses[i % statuses.length]));
+            if (operations.size() == TaskServiceImpl.MAX_BATCH_SIZE) {
+                taskService.applyBatch(operations);
+                operations = new ArrayList<>();
+            }
+        }
+        if (!operations.isEmpty()) {
+            taskService.applyBatch(operations);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.SpringToDo.loadtest;
+
+import com.example.SpringToDo.model.TaskStatus;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Запросы к /api/v1/tasks в смеси нагрузки; ключ — имя в loadtest.mix и в отчёте.
+ * Чтения по id и изменения в 80% случаев приходятся на горячие 20% засеянных задач.
+ */
+enum LoadOperation {
+    GET("get") {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return HttpRequest.newBuilder(URI.create(target.base() + "/" + target.taskId(random))).GET();
+        }
+    },
+    FILTER("filter") {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return HttpRequest.newBuilder(URI.create(target.base() + "?status=" + randomStatus(random)
+                    + "&limit=" + target.pageSize())).GET();
+        }
+    },
+    SORT("sort") {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            String sort = random.nextBoolean() ? "dueDate" : "status";
+            return HttpRequest.newBuilder(URI.create(target.base() + "?sort=" + sort
+                    + "&limit=" + target.pageSize())).GET();
+        }
+    },
+    CREATE("create") {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            String body = "{\"title\":\"" + SyntheticTaskGenerator.title(random)
+                    + "\",\"description\":\"Load test\",\"dueDate\":\"" + LocalDate.now().plusDays(1 + random.nextInt(60))
+                    + "\",\"status\":\"TODO\"}";
+            return HttpRequest.newBuilder(URI.create(target.base()))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    },
+    UPDATE("update") {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            String body = "{\"status\":\"" + randomStatus(random) + "\"}";
+            return HttpRequest.newBuilder(URI.create(target.base() + "/" + target.taskId(random)))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(body));
+        }
+    };
+
+    private final String key;
+
+    LoadOperation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    //вызывается только из потока генератора: Random не делится между потоками отправки
+    abstract HttpRequest.Builder request(Target target, Random random);
+
+    HttpRequest build(Target target, Random random) {
+        return request(target, random).timeout(target.timeout()).build();
+    }
+
+    static LoadOperation fromKey(String key) {
+        for (LoadOperation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown load operation: " + key);
+    }
+
+    private static TaskStatus randomStatus(Random random) {
+        TaskStatus[] statuses = TaskStatus.values();
+        return statuses[random.nextInt(statuses.length)];
+    }
+
+    /** Адрес API, число засеянных задач (id 1..seededTasks) и параметры запросов. */
+    record Target(String base, int seededTasks, int pageSize, Duration timeout) {
+        int taskId(Random random) {
+            int hot = Math.max(1, seededTasks / 5);
+            return random.nextInt(10) < 8 ? 1 + random.nextInt(hot) : 1 + random.nextInt(seededTasks);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.SpringToDo.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Результат прогона для build/results/loadTest/results.json: пропускная способность и перцентили по каждой операции
+ * и по всем вместе, плюс нарушенные пороги loadtest.max-p99-ms и loadtest.max-error-rate.
+ */
+record LoadTestReport(String database,
+                      int seededTasks,
+                      double targetRate,
+                      long warmupSeconds,
+                      long durationSeconds,
+                      Map<String, Integer> mix,
+                      Map<String, Endpoint> endpoints,
+                      Endpoint total,
+                      List<String> violations) {
+
+    /** Задержки в миллисекундах от запланированной отправки до ответа; throughput — успешных ответов в секунду. */
+    record Endpoint(long requests, long errors, long dropped, double throughput,
+                    double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+
+        static Endpoint of(Histogram latencyMicros, long errors, long dropped, double seconds) {
+            long requests = latencyMicros.getTotalCount();
+            return new Endpoint(requests, errors, dropped, requests / seconds,
+                    millis(latencyMicros, 50), millis(latencyMicros, 99), millis(latencyMicros, 99.9),
+                    requests == 0 ? 0 : latencyMicros.getMaxValue() / 1000.0);
+        }
+
+        double errorRate() {
+            long attempted = requests + errors + dropped;
+            return attempted == 0 ? 0 : (double) (errors + dropped) / attempted;
+        }
+
+        private static double millis(Histogram latencyMicros, double percentile) {
+            return latencyMicros.getTotalCount() == 0 ? 0 : latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    static LoadTestReport of(LoadTestSettings settings, String database,
+                             Map<LoadOperation, OpenLoopLoadGenerator.EndpointStats> stats) {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        settings.mix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+
+        Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+        Histogram all = new Histogram(3);
+        long errors = 0;
+        long dropped = 0;
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<LoadOperation, OpenLoopLoadGenerator.EndpointStats> entry : stats.entrySet()) {
+            OpenLoopLoadGenerator.EndpointStats endpointStats = entry.getValue();
+            Endpoint endpoint = Endpoint.of(endpointStats.latencyMicros, endpointStats.errors.sum(),
+                    endpointStats.dropped.sum(), seconds);
+            endpoints.put(entry.getKey().key(), endpoint);
+            all.add(endpointStats.latencyMicros);
+            errors += endpoint.errors();
+            dropped += endpoint.dropped();
+            check(entry.getKey().key(), endpoint, settings, violations);
+        }
+        Endpoint total = Endpoint.of(all, errors, dropped, seconds);
+        check("total", total, settings, violations);
+        return new LoadTestReport(database, settings.tasks(), settings.rate(), settings.warmup().toSeconds(),
+                settings.duration().toSeconds(), mix, endpoints, total, violations);
+    }
+
+    private static void check(String name, Endpoint endpoint, LoadTestSettings settings, List<String> violations) {
+        if (settings.maxP99Millis() != null && endpoint.p99Ms() > settings.maxP99Millis()) {
+            violations.add(String.format(Locale.ROOT, "%s: p99 %.2f ms > %.2f ms",
+                    name, endpoint.p99Ms(), settings.maxP99Millis()));
+        }
+        if (settings.maxErrorRate() != null && endpoint.errorRate() > settings.maxErrorRate()) {
+            violations.add(String.format(Locale.ROOT, "%s: error rate %.4f > %.4f",
+                    name, endpoint.errorRate(), settings.maxErrorRate()));
+        }
+    }
+}
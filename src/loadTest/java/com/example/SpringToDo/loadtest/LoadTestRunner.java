@@ -0,0 +1,104 @@
+package com.example.SpringToDo.loadtest;
+
+import com.example.SpringToDo.Application;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Нагрузочный прогон: ./gradlew loadTest -Dloadtest.tasks=1000000 -Dloadtest.rate=2000 -Dloadtest.duration-seconds=120.
+ * Сначала контекст без веб-сервера создаёт схему и засевает задачи ({@link SyntheticTaskGenerator}), затем приложение
+ * поднимается на случайном порту уже над заполненной базой — статистика, индекс и напоминания загружаются как в
+ * продакшене. С переменной TODO_PG_URL используется PostgreSQL (таблицы пересоздаются), иначе H2 в памяти.
+ * При нарушенных порогах процесс завершается с кодом 1 уже после записи отчёта.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        String pgUrl = System.getenv("TODO_PG_URL");
+        boolean postgres = pgUrl != null && !pgUrl.isBlank();
+        Map<String, Object> properties = properties(settings, pgUrl);
+
+        long seedStart = System.nanoTime();
+        Map<String, Object> seedProperties = new HashMap<>(properties);
+        seedProperties.put("spring.jpa.hibernate.ddl-auto", "create");
+        try (ConfigurableApplicationContext context = application(settings, seedProperties)
+                .web(WebApplicationType.NONE)
+                .run()) {
+            new SyntheticTaskGenerator(context.getBean(JdbcTemplate.class), settings.randomSeed()).seed(settings.tasks());
+        }
+        System.out.printf("Seeded %d tasks in %d ms%n", settings.tasks(), (System.nanoTime() - seedStart) / 1_000_000);
+
+        LoadTestReport report;
+        try (ConfigurableApplicationContext context = application(settings, properties).run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            LoadOperation.Target target = new LoadOperation.Target("http://localhost:" + port + "/api/v1/tasks",
+                    settings.tasks(), settings.pageSize(), settings.requestTimeout());
+            report = LoadTestReport.of(settings, postgres ? "postgresql" : "h2",
+                    new OpenLoopLoadGenerator(client, target, settings).run());
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        String json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report);
+        if (settings.output().getParent() != null) {
+            Files.createDirectories(settings.output().getParent());
+        }
+        Files.writeString(settings.output(), json);
+        System.out.println(json);
+        System.out.println("Report written to " + settings.output().toAbsolutePath());
+        if (!report.violations().isEmpty()) {
+            report.violations().forEach(violation -> System.err.println("Threshold violated: " + violation));
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static SpringApplicationBuilder application(LoadTestSettings settings, Map<String, Object> properties) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Application.class).properties(properties);
+        if (!settings.profiles().isEmpty()) {
+            builder.profiles(settings.profiles().toArray(String[]::new));
+        }
+        return builder;
+    }
+
+    private static Map<String, Object> properties(LoadTestSettings settings, String pgUrl) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.jpa.hibernate.ddl-auto", "none");
+        properties.put("spring.jpa.properties.hibernate.format_sql", false);
+        properties.put("logging.level.root", "WARN");
+        if (pgUrl != null && !pgUrl.isBlank()) {
+            properties.put("spring.datasource.url", pgUrl);
+            properties.put("spring.datasource.username", System.getenv().getOrDefault("TODO_PG_USER", "postgres"));
+            properties.put("spring.datasource.password", System.getenv().getOrDefault("TODO_PG_PASSWORD", "postgres"));
+        } else {
+            //DB_CLOSE_DELAY=-1: база переживает закрытие контекста, засеявшего её
+            properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        }
+        //loadtest.app.* — последними, чтобы можно было переопределить и значения выше
+        properties.putAll(settings.appProperties());
+        return properties;
+    }
+}
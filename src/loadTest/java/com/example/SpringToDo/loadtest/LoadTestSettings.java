@@ -0,0 +1,91 @@
+package com.example.SpringToDo.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Параметры прогона из системных свойств loadtest.*; свойства loadtest.app.* без префикса уходят в приложение
+ * (например -Dloadtest.app.todo.index.enabled=true).
+ */
+record LoadTestSettings(int tasks,
+                        double rate,
+                        Duration warmup,
+                        Duration duration,
+                        Map<LoadOperation, Integer> mix,
+                        int pageSize,
+                        int maxInFlight,
+                        Duration requestTimeout,
+                        long randomSeed,
+                        Path output,
+                        Double maxP99Millis,
+                        Double maxErrorRate,
+                        List<String> profiles,
+                        Map<String, Object> appProperties) {
+    private static final String PREFIX = "loadtest.";
+    private static final String APP_PREFIX = PREFIX + "app.";
+    private static final String DEFAULT_MIX = "get:50,filter:15,sort:15,create:10,update:10";
+
+    static LoadTestSettings fromSystemProperties() {
+        Properties properties = System.getProperties();
+        Map<String, Object> appProperties = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(APP_PREFIX)) {
+                appProperties.put(name.substring(APP_PREFIX.length()), properties.getProperty(name));
+            }
+        }
+        String profiles = property("profiles", "");
+        String maxP99 = property("max-p99-ms", null);
+        String maxErrorRate = property("max-error-rate", null);
+        LoadTestSettings settings = new LoadTestSettings(
+                Integer.parseInt(property("tasks", "100000")),
+                Double.parseDouble(property("rate", "500")),
+                Duration.ofSeconds(Long.parseLong(property("warmup-seconds", "10"))),
+                Duration.ofSeconds(Long.parseLong(property("duration-seconds", "60"))),
+                parseMix(property("mix", DEFAULT_MIX)),
+                Integer.parseInt(property("page-size", "50")),
+                Integer.parseInt(property("max-in-flight", "2000")),
+                Duration.ofSeconds(Long.parseLong(property("request-timeout-seconds", "30"))),
+                Long.parseLong(property("seed", "42")),
+                Path.of(property("output", "build/results/loadTest/results.json")),
+                maxP99 != null ? Double.valueOf(maxP99) : null,
+                maxErrorRate != null ? Double.valueOf(maxErrorRate) : null,
+                profiles.isBlank() ? List.of() : Arrays.stream(profiles.split(",")).map(String::trim).toList(),
+                appProperties);
+        if (settings.tasks < 1 || settings.rate <= 0 || settings.duration.isZero() || settings.maxInFlight < 1) {
+            throw new IllegalArgumentException("loadtest.tasks, rate, duration-seconds and max-in-flight must be positive");
+        }
+        return settings;
+    }
+
+    //"get:50,create:10": веса операций; операции без веса не отправляются
+    static Map<LoadOperation, Integer> parseMix(String mix) {
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entry must look like name:weight, got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weight cannot be negative: " + entry);
+            }
+            if (weight > 0) {
+                weights.put(LoadOperation.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix must contain at least one operation");
+        }
+        return weights;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.SpringToDo.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Открытая модель нагрузки: запросы уходят по расписанию пуассоновского потока с интенсивностью rate,
+ * не дожидаясь ответов на предыдущие. Задержка считается от запланированного момента отправки, поэтому
+ * очередь на сервере и отставание генератора попадают в гистограмму, а не скрываются, как в замкнутом цикле.
+ * Запросы прогрева отправляются, но не учитываются; сверх max-in-flight запрос не отправляется и считается отброшенным.
+ */
+final class OpenLoopLoadGenerator {
+    private final HttpClient client;
+    private final LoadOperation.Target target;
+    private final LoadTestSettings settings;
+
+    OpenLoopLoadGenerator(HttpClient client, LoadOperation.Target target, LoadTestSettings settings) {
+        this.client = client;
+        this.target = target;
+        this.settings = settings;
+    }
+
+    Map<LoadOperation, EndpointStats> run() {
+        Map<LoadOperation, EndpointStats> stats = new EnumMap<>(LoadOperation.class);
+        settings.mix().keySet().forEach(operation -> stats.put(operation, new EndpointStats()));
+        LoadOperation[] operations = settings.mix().keySet().toArray(LoadOperation[]::new);
+        int[] cumulative = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += settings.mix().get(operations[i]);
+            cumulative[i] = total;
+        }
+
+        Random random = new Random(settings.randomSeed());
+        Semaphore inFlight = new Semaphore(settings.maxInFlight());
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        //закрытие executor дожидается ответов на все отправленные запросы
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long scheduled = start; scheduled < end;
+                 scheduled += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos)) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                int roll = random.nextInt(total);
+                int index = 0;
+                while (cumulative[index] <= roll) {
+                    index++;
+                }
+                HttpRequest request = operations[index].build(target, random);
+                EndpointStats endpoint = scheduled >= measureFrom ? stats.get(operations[index]) : null;
+                if (!inFlight.tryAcquire()) {
+                    if (endpoint != null) {
+                        endpoint.dropped.increment();
+                    }
+                    continue;
+                }
+                long intended = scheduled;
+                senders.execute(() -> {
+                    try {
+                        send(request, intended, endpoint);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+
+    private void send(HttpRequest request, long intended, EndpointStats endpoint) {
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            long latencyNanos = System.nanoTime() - intended;
+            if (endpoint == null) {
+                return;
+            }
+            if (response.statusCode() >= 400) {
+                endpoint.errors.increment();
+            } else {
+                endpoint.latencyMicros.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+            }
+        } catch (IOException e) {
+            if (endpoint != null) {
+                endpoint.errors.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //успешные ответы — в гистограмме (мкс), ошибки и отброшенные — счётчиками
+    static final class EndpointStats {
+        final Histogram latencyMicros = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.SpringToDo.loadtest;
+
+import com.example.SpringToDo.model.TaskStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет пустую таблицу task синтетическими задачами пакетными INSERT через JDBC, в обход сервиса:
+ * его валидация не пропустила бы просроченные задачи. Половина задач выполнена (в основном со сроком в прошлом),
+ * у незавершённых 15% просрочены, сроки остальных сгущаются в ближайших неделях (экспоненциально, в среднем 14 дней).
+ */
+final class SyntheticTaskGenerator {
+    private static final int BATCH_SIZE = 1_000;
+    //allocationSize task_seq в Task
+    private static final int SEQUENCE_ALLOCATION = 50;
+    private static final String[] VERBS = {"Review", "Prepare", "Fix", "Update", "Plan", "Call", "Write", "Check"};
+    private static final String[] NOUNS = {"report", "invoice", "release", "budget", "meeting", "contract",
+            "backlog", "presentation", "migration", "onboarding"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+    private final LocalDate today = LocalDate.now();
+
+    SyntheticTaskGenerator(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new Random(seed);
+    }
+
+    static String title(Random random) {
+        return VERBS[random.nextInt(VERBS.length)] + " " + NOUNS[random.nextInt(NOUNS.length)];
+    }
+
+    //задачи получают id 1..count; последовательность сдвигается за них, чтобы POST не получил занятый id
+    void seed(int count) {
+        String sql = "insert into task (id, title, description, due_date, status, version) values (?, ?, ?, ?, ?, 0)";
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int id = 1; id <= count; id++) {
+            rows.add(row(id));
+            if (rows.size() == BATCH_SIZE || id == count) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+        jdbcTemplate.execute("alter sequence task_seq restart with " + (count + SEQUENCE_ALLOCATION + 1));
+    }
+
+    private Object[] row(int id) {
+        double roll = random.nextDouble();
+        TaskStatus status = roll < 0.5 ? TaskStatus.DONE : roll < 0.85 ? TaskStatus.TODO : TaskStatus.IN_PROGRESS;
+        LocalDate dueDate;
+        if (status == TaskStatus.DONE) {
+            dueDate = random.nextInt(10) == 0
+                    ? today.plusDays(random.nextInt(30))
+                    : today.minusDays(1 + random.nextInt(180));
+        } else if (random.nextDouble() < 0.15) {
+            dueDate = today.minusDays(1 + random.nextInt(30));
+        } else {
+            long days = (long) (-Math.log(1 - random.nextDouble()) * 14);
+            dueDate = today.plusDays(Math.min(days, 365));
+        }
+        String description = random.nextInt(10) < 3 ? null
+                : title(random) + " before " + dueDate + ", see " + NOUNS[random.nextInt(NOUNS.length)] + " notes";
+        return new Object[]{id, title(random) + " #" + id, description, Date.valueOf(dueDate), status.name()};
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.SpringToDo.controller;
+
+import com.example.SpringToDo.mapper.TaskProtoMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Двоичные форматы по заголовку Accept: application/cbor, application/x-jackson-smile, application/x-protobuf.
+ * Они стоят в списке после JSON, поэтому без Accept или с Accept: *&#47;* ответ остаётся JSON.
+ */
+@Configuration
+public class MessageConvertersConfig {
+
+    @Bean
+    public WebMvcConfigurer binaryMessageConverters(ObjectMapper objectMapper, TaskProtoMapper protoMapper) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                //Spring сам добавляет CBOR и Smile, но со своим ObjectMapper; берём копию настроенного Spring Boot,
+                //чтобы даты и прочие настройки совпадали с JSON
+                converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                        || converter instanceof MappingJackson2SmileHttpMessageConverter);
+                int json = 0;
+                while (json < converters.size()
+                        && !(converters.get(json) instanceof MappingJackson2HttpMessageConverter)) {
+                    json++;
+                }
+                int position = Math.min(json + 1, converters.size());
+                converters.add(position,
+                        new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())));
+                converters.add(position + 1,
+                        new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())));
+                converters.add(new TaskProtobufHttpMessageConverter(protoMapper));
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.SpringToDo.controller;
+
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.event.TaskEventBus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Отправляет события шины в SSE-соединение: имя события — created/updated/deleted, данные — TaskChangedEvent в JSON.
+ */
+@RequiredArgsConstructor
+class SseTaskSink implements TaskEventBus.Sink {
+    private final SseEmitter emitter;
+
+    @Override
+    public void send(TaskChangedEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .name(event.getType().name().toLowerCase(Locale.ROOT))
+                .data(event, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void heartbeat() throws IOException {
+        emitter.send(SseEmitter.event().comment("keepalive"));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
@@ -1,35 +1,110 @@
 package com.example.SpringToDo.controller;
 
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
+import com.example.SpringToDo.dto.TaskBatchResultDTO;
 import com.example.SpringToDo.dto.TaskCreateDTO;
 import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskIngestStatusDTO;
+import com.example.SpringToDo.dto.TaskPageDTO;
+import com.example.SpringToDo.dto.TaskPatchDTO;
+import com.example.SpringToDo.dto.TaskStatsDTO;
+import com.example.SpringToDo.event.TaskEventBus;
+import com.example.SpringToDo.exception.TaskNotFoundException;
 import com.example.SpringToDo.mapper.TaskMapper;
 import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.reminder.SseReminderSink;
+import com.example.SpringToDo.service.Revisioned;
+import com.example.SpringToDo.service.TaskIngestQueue;
 import com.example.SpringToDo.service.TaskService;
+import com.example.SpringToDo.service.TaskSort;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 @RestController
 @RequestMapping("api/v1/tasks")
 @RequiredArgsConstructor
 public class TaskController {
+    static final int DEFAULT_PAGE_SIZE = 50;
+
     private final TaskService taskService;
     private final TaskMapper taskMapper;
+    private final ObjectMapper objectMapper;
+    private final TaskEventBus eventBus;
+    private final Optional<TaskIngestQueue> ingestQueue;
+    private final Optional<SseReminderSink> reminderSink;
+    private final ContentNegotiationManager contentNegotiationManager;
+
+    @Value("${todo.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs = 1_800_000;
 
     @PostMapping
-    public ResponseEntity<TaskDTO> createTask(@Valid @RequestBody TaskCreateDTO dto) {
+    public ResponseEntity<?> createTask(@Valid @RequestBody TaskCreateDTO dto) {
+        //с todo.ingest.enabled задача пишется асинхронно группами, клиент получает trackingId
+        if (ingestQueue.isPresent()) {
+            TaskIngestStatusDTO status = ingestQueue.get().enqueue(dto);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/tasks/ingest/" + status.getTrackingId()))
+                    .body(status);
+        }
         taskService.createTask(dto);
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
+    @GetMapping("/ingest/{trackingId}")
+    public ResponseEntity<TaskIngestStatusDTO> getIngestStatus(@PathVariable String trackingId) {
+        return ingestQueue.flatMap(queue -> queue.getStatus(trackingId))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskBatchResultDTO>> applyBatch(@RequestBody List<TaskBatchOperationDTO> operations) {
+        return ResponseEntity.ok(taskService.applyBatch(operations));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<TaskDTO> updateTask(@PathVariable int id, @Valid @RequestBody TaskDTO dto) {
+    public ResponseEntity<TaskDTO> updateTask(@PathVariable int id, @Valid @RequestBody TaskDTO dto,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              NativeWebRequest request) {
+        Long expectedVersion = versionFromIfMatch(id, ifMatch);
+        if (expectedVersion != null) {
+            dto.setVersion(expectedVersion);
+        }
         TaskDTO updated = taskService.updateTask(id, dto);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok().eTag(taskETag(updated, responseFormat(request))).body(updated);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<TaskDTO> patchTask(@PathVariable int id, @Valid @RequestBody TaskPatchDTO patch,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             NativeWebRequest request) {
+        Long expectedVersion = versionFromIfMatch(id, ifMatch);
+        if (expectedVersion != null) {
+            patch.setVersion(expectedVersion);
+        }
+        TaskDTO patched = taskService.patchTask(id, patch);
+        return ResponseEntity.ok().eTag(taskETag(patched, responseFormat(request))).body(patched);
     }
 
 
@@ -39,26 +114,168 @@ public class TaskController {
         return ResponseEntity.noContent().build();
     }
 
+    //возврат из архива: POST /api/v1/tasks/{id}/restore?status=TODO — иначе DONE-задача снова уйдёт в архив
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<TaskDTO> restoreTask(@PathVariable int id, @RequestParam(required = false) TaskStatus status,
+                                               NativeWebRequest request) {
+        TaskDTO restored = taskService.restoreTask(id, status);
+        return ResponseEntity.ok().eTag(taskETag(restored, responseFormat(request))).body(restored);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDTO> getTaskById(@PathVariable int id) {
-        TaskDTO dto = taskService.getTaskById(id);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<TaskDTO> getTaskById(@PathVariable int id,
+                                               @RequestParam(defaultValue = "false") boolean includeArchived,
+                                               NativeWebRequest request) {
+        TaskDTO dto;
+        try {
+            dto = taskService.getTaskById(id);
+        } catch (TaskNotFoundException e) {
+            if (!includeArchived) {
+                throw e;
+            }
+            dto = taskService.getArchivedTaskById(id);
+        }
+        String etag = taskETag(dto, responseFormat(request));
+        //304 без сериализации тела; при попадании в кэш задач — и без запроса в базу
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(dto);
     }
 
+    //формат тела по Accept: JSON по умолчанию, application/cbor, application/x-jackson-smile, application/x-protobuf
     @GetMapping
-    public ResponseEntity<List<TaskDTO>> getAllTasks(
+    public ResponseEntity<?> getAllTasks(
             @RequestParam(required = false) TaskStatus status,
-            @RequestParam(required = false) String sort) {
-        List<TaskDTO> dtos;
-        if (status != null) {
-            dtos = taskService.filterTasksByStatus(status);
-        } else if ("dueDate".equalsIgnoreCase(sort)) {
-            dtos = taskService.getAllTasksSortedByDueDate();
-        } else if ("status".equalsIgnoreCase(sort)) {
-            dtos = taskService.getAllTasksSortedByStatus();
-        } else {
-            dtos = taskService.getAllTasks();
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            NativeWebRequest request) {
+        //ревизия и список приходят из одного источника (индекс или одна транзакция в базе), ревизия читается
+        //раньше списка; при актуальном If-None-Match список не читается
+        TaskResponseFormat format = responseFormat(request);
+        Predicate<String> notModified = revision -> request.checkNotModified(listETag(revision, format));
+        //с limit или after отдаём страницу с курсором, без них — прежний полный список
+        if (limit != null || after != null) {
+            if (includeArchived) {
+                throw new IllegalArgumentException("includeArchived is not supported with limit or after");
+            }
+            Revisioned<TaskPageDTO> page = taskService.getTasksPage(status, TaskSort.fromParam(sort), after,
+                    limit != null ? limit : DEFAULT_PAGE_SIZE, notModified);
+            if (page.value() == null) {
+                return null;
+            }
+            return ResponseEntity.ok().eTag(listETag(page.revision(), format)).varyBy(HttpHeaders.ACCEPT)
+                    .body(page.value());
+        }
+        Revisioned<List<TaskDTO>> tasks = taskService.getTaskList(status, TaskSort.fromParam(sort), includeArchived,
+                notModified);
+        if (tasks.value() == null) {
+            return null;
         }
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok().eTag(listETag(tasks.revision(), format)).varyBy(HttpHeaders.ACCEPT)
+                .body(tasks.value());
+    }
+
+    //клиент переподключается после таймаута; события, пришедшие между подключениями, не повторяются
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTasks() {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        TaskEventBus.Subscription subscription = eventBus.subscribe(new SseTaskSink(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    //напоминания о сроках (todo.reminders.enabled): события due_soon и overdue
+    @GetMapping(path = "/reminders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamReminders() {
+        return reminderSink.map(sink -> ResponseEntity.ok(sink.subscribe(streamTimeoutMs)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStatsDTO> getTaskStats() {
+        return ResponseEntity.ok(taskService.getTaskStats());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<TaskPageDTO> searchTasks(@RequestParam String q,
+                                                   @RequestParam(required = false) Integer limit,
+                                                   @RequestParam(required = false) String after) {
+        TaskPageDTO page = taskService.searchTasks(q, after, limit != null ? limit : DEFAULT_PAGE_SIZE);
+        return ResponseEntity.ok(page);
+    }
+
+    //первые limit задач по сроку: ?before=2025-01-01 — срок до даты, ?from=...&before=... — диапазон
+    @GetMapping("/due")
+    public ResponseEntity<List<TaskDTO>> getTasksDue(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskService.getTasksDueBetween(status, from, before,
+                limit != null ? limit : DEFAULT_PAGE_SIZE));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "ndjson") String format) {
+        TaskExportFormat exportFormat = TaskExportFormat.fromParam(format);
+        StreamingResponseBody body = out -> {
+            exportFormat.writeHeader(out);
+            taskService.exportTasks(dto -> {
+                try {
+                    exportFormat.writeRow(out, dto, objectMapper);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks." + exportFormat.getExtension())
+                .body(body);
+    }
+
+    //If-Match с ETag вида "task-<id>-<version>-<формат>" задаёт ожидаемую версию (формат не важен, ETag без него
+    //тоже принимается); "*" и отсутствие заголовка — без проверки
+    private static Long versionFromIfMatch(int id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = "\"task-" + id + "-";
+        String value = ifMatch.trim();
+        if (!value.startsWith(prefix) || !value.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match does not match task " + id + ": " + ifMatch);
+        }
+        String version = value.substring(prefix.length(), value.length() - 1);
+        int format = version.indexOf('-');
+        try {
+            return Long.parseLong(format < 0 ? version : version.substring(0, format));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match: " + ifMatch);
+        }
+    }
+
+    //формат ответа по Accept так же, как его выберут конвертеры; его нет в ETag — разные представления
+    //получили бы один сильный ETag
+    private TaskResponseFormat responseFormat(NativeWebRequest request) {
+        try {
+            return TaskResponseFormat.negotiate(contentNegotiationManager.resolveMediaTypes(request));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            //некорректный Accept: ответ всё равно будет 406
+            return TaskResponseFormat.JSON;
+        }
+    }
+
+    private static String listETag(String revision, TaskResponseFormat format) {
+        return "\"tasks-" + revision + "-" + format.getTag() + "\"";
+    }
+
+    private static String taskETag(TaskDTO dto, TaskResponseFormat format) {
+        long version = dto.getVersion() != null ? dto.getVersion() : 0;
+        return "\"task-" + dto.getId() + "-" + version + "-" + format.getTag() + "\"";
     }
 }
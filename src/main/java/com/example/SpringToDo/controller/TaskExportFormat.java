@@ -0,0 +1,70 @@
+package com.example.SpringToDo.controller;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Форматы потоковой выгрузки задач. Каждая строка пишется в поток сразу, без буферизации всего ответа.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TaskExportFormat {
+    NDJSON("ndjson", MediaType.APPLICATION_NDJSON) {
+        @Override
+        void writeRow(OutputStream out, TaskDTO dto, ObjectMapper objectMapper) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(dto));
+            out.write('\n');
+        }
+    },
+    CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)) {
+        @Override
+        void writeHeader(OutputStream out) throws IOException {
+            out.write("id,title,description,dueDate,status\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        void writeRow(OutputStream out, TaskDTO dto, ObjectMapper objectMapper) throws IOException {
+            String row = dto.getId() + ","
+                    + escape(dto.getTitle()) + ","
+                    + escape(dto.getDescription()) + ","
+                    + (dto.getDueDate() != null ? dto.getDueDate() : "") + ","
+                    + (dto.getStatus() != null ? dto.getStatus() : "") + "\n";
+            out.write(row.getBytes(StandardCharsets.UTF_8));
+        }
+    };
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    void writeHeader(OutputStream out) throws IOException {
+    }
+
+    abstract void writeRow(OutputStream out, TaskDTO dto, ObjectMapper objectMapper) throws IOException;
+
+    public static TaskExportFormat fromParam(String format) {
+        for (TaskExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + format);
+    }
+
+    //RFC 4180: значения с запятой, кавычкой или переводом строки берём в кавычки
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.SpringToDo.controller;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskPageDTO;
+import com.example.SpringToDo.service.TaskService;
+import com.example.SpringToDo.service.TaskSort;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Все задачи для "показать все" на главной: читает keyset-страницы по мере обхода, а не одним списком.
+ * Перед чтением следующей страницы вызывает beforeNextPage, чтобы уже отрисованные строки ушли клиенту.
+ */
+class TaskPageStream implements Iterable<TaskDTO> {
+    private final TaskService taskService;
+    private final TaskSort sort;
+    private final int pageSize;
+    private final Runnable beforeNextPage;
+
+    TaskPageStream(TaskService taskService, TaskSort sort, int pageSize, Runnable beforeNextPage) {
+        this.taskService = taskService;
+        this.sort = sort;
+        this.pageSize = pageSize;
+        this.beforeNextPage = beforeNextPage;
+    }
+
+    @Override
+    public Iterator<TaskDTO> iterator() {
+        return new Iterator<>() {
+            private Iterator<TaskDTO> page = Collections.emptyIterator();
+            private String next;
+            private boolean started;
+
+            @Override
+            public boolean hasNext() {
+                while (!page.hasNext()) {
+                    if (started && next == null) {
+                        return false;
+                    }
+                    if (started) {
+                        beforeNextPage.run();
+                    }
+                    TaskPageDTO loaded = taskService.getTasksPage(null, sort, next, pageSize);
+                    started = true;
+                    page = loaded.getItems().iterator();
+                    next = loaded.getNext();
+                }
+                return true;
+            }
+
+            @Override
+            public TaskDTO next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.next();
+            }
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.SpringToDo.controller;
+
+import com.example.SpringToDo.dto.TaskCreateDTO;
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskPageDTO;
+import com.example.SpringToDo.mapper.TaskProtoMapper;
+import com.example.SpringToDo.proto.Task;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * application/x-protobuf по схеме src/main/proto/task.proto: пишет TaskDTO, List<TaskDTO> и TaskPageDTO,
+ * читает TaskDTO и TaskCreateDTO. Для ответов с типом ResponseEntity<?> тип элементов списка известен
+ * только при записи, поэтому список проверяется там.
+ */
+public class TaskProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private final TaskProtoMapper protoMapper;
+
+    public TaskProtobufHttpMessageConverter(TaskProtoMapper protoMapper) {
+        super(PROTOBUF, new MediaType("application", "protobuf"));
+        this.protoMapper = protoMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == TaskDTO.class || clazz == TaskCreateDTO.class || clazz == TaskPageDTO.class
+                || Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return (clazz == TaskDTO.class || clazz == TaskCreateDTO.class) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return type instanceof Class<?> clazz && canRead(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (clazz == TaskCreateDTO.class || !canWrite(clazz, mediaType)) {
+            return false;
+        }
+        //List<TaskBatchResultDTO> и прочие списки не задач отклоняются сразу; сырой List проверяется при записи
+        if (type != null && Collection.class.isAssignableFrom(clazz)) {
+            Class<?> element = ResolvableType.forType(type).asCollection().resolveGeneric(0);
+            return element == null || element == TaskDTO.class;
+        }
+        return true;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal((Class<?>) type, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        Task task;
+        try {
+            task = Task.parseFrom(inputMessage.getBody());
+        } catch (InvalidProtocolBufferException e) {
+            throw new HttpMessageNotReadableException("Invalid protobuf task: " + e.getMessage(), e, inputMessage);
+        }
+        return clazz == TaskCreateDTO.class ? protoMapper.toCreateDto(task) : protoMapper.toDto(task);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Message message;
+        if (body instanceof TaskDTO dto) {
+            message = protoMapper.toProto(dto);
+        } else if (body instanceof TaskPageDTO page) {
+            message = protoMapper.toProto(page);
+        } else if (body instanceof Collection<?> items) {
+            List<TaskDTO> dtos = new ArrayList<>(items.size());
+            for (Object item : items) {
+                if (!(item instanceof TaskDTO dto)) {
+                    throw new HttpMessageNotWritableException(
+                            "Protobuf is supported only for task lists, got " + item.getClass().getSimpleName());
+                }
+                dtos.add(dto);
+            }
+            message = protoMapper.toProtoList(dtos);
+        } else {
+            throw new HttpMessageNotWritableException("Protobuf is not supported for " + body.getClass().getSimpleName());
+        }
+        message.writeTo(outputMessage.getBody());
+    }
+}
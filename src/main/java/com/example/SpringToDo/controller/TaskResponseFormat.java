@@ -0,0 +1,42 @@
+package com.example.SpringToDo.controller;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Форматы тел ответов (MessageConvertersConfig) в порядке конвертеров: без Accept и при *&#47;* — JSON.
+ * Формат входит в ETag: представления одной задачи в JSON и CBOR — разные байты, сильный ETag у них разный.
+ */
+enum TaskResponseFormat {
+    JSON("json", MediaType.APPLICATION_JSON),
+    CBOR("cbor", MediaType.APPLICATION_CBOR),
+    SMILE("smile", new MediaType("application", "x-jackson-smile")),
+    PROTOBUF("protobuf", TaskProtobufHttpMessageConverter.PROTOBUF, new MediaType("application", "protobuf"));
+
+    private final String tag;
+    private final List<MediaType> mediaTypes;
+
+    TaskResponseFormat(String tag, MediaType... mediaTypes) {
+        this.tag = tag;
+        this.mediaTypes = List.of(mediaTypes);
+    }
+
+    String getTag() {
+        return tag;
+    }
+
+    //как при выборе конвертера: первый формат, совместимый с самым предпочтительным допустимым типом
+    static TaskResponseFormat negotiate(List<MediaType> acceptable) {
+        for (MediaType type : acceptable) {
+            for (TaskResponseFormat format : values()) {
+                for (MediaType mediaType : format.mediaTypes) {
+                    if (type.isCompatibleWith(mediaType)) {
+                        return format;
+                    }
+                }
+            }
+        }
+        return JSON;
+    }
+}
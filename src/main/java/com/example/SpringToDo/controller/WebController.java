@@ -2,37 +2,66 @@ package com.example.SpringToDo.controller;
 
 import com.example.SpringToDo.dto.TaskCreateDTO;
 import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskPageDTO;
 import com.example.SpringToDo.mapper.TaskMapper;
+import com.example.SpringToDo.metrics.RenderTimingInterceptor;
 import com.example.SpringToDo.model.Task;
 import com.example.SpringToDo.model.TaskStatus;
 import com.example.SpringToDo.service.TaskService;
+import com.example.SpringToDo.service.TaskSort;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 @Controller
 @RequiredArgsConstructor
 public class WebController {
+    //строк на одно чтение из базы при all=true
+    static final int STREAM_PAGE_SIZE = 500;
+
     private final TaskService taskService;
     private final TaskMapper taskMapper;
 
+    //главная: по умолчанию страница keyset-пагинации; all=true — все задачи потоком, строки уходят клиенту
+    //по мере чтения страниц из базы
     @GetMapping("/")
-    public String index(@RequestParam(required = false) String sort, Model model) {
-        List<TaskDTO> dtos;
-        if ("dueDate".equalsIgnoreCase(sort)) {
-            dtos = taskService.getAllTasksSortedByDueDate();
-        } else if ("status".equalsIgnoreCase(sort)) {
-            dtos = taskService.getAllTasksSortedByStatus();
-        } else {
-            dtos = taskService.getAllTasks();
+    public String index(@RequestParam(required = false) String sort,
+                        @RequestParam(required = false) Integer limit,
+                        @RequestParam(required = false) String after,
+                        @RequestParam(defaultValue = "false") boolean all,
+                        Model model,
+                        HttpServletRequest request,
+                        HttpServletResponse response) {
+        TaskSort taskSort = TaskSort.fromParam(sort);
+        int pageSize = limit != null ? limit : TaskController.DEFAULT_PAGE_SIZE;
+        model.addAttribute("sort", sort);
+        model.addAttribute("limit", pageSize);
+        model.addAttribute("all", all);
+        if (all) {
+            request.setAttribute(RenderTimingInterceptor.MODE_ATTRIBUTE, "all");
+            model.addAttribute("tasks", new TaskPageStream(taskService, taskSort, STREAM_PAGE_SIZE, () -> {
+                try {
+                    response.flushBuffer();
+                    RenderTimingInterceptor.markFirstByte(request);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            return "index";
         }
-        model.addAttribute("tasks", dtos);
+        TaskPageDTO page = taskService.getTasksPage(null, taskSort, after, pageSize);
+        model.addAttribute("tasks", page.getItems());
+        model.addAttribute("next", page.getNext());
+        model.addAttribute("first", after != null);
         return "index";
     }
 
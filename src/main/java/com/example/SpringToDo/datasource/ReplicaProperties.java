@@ -0,0 +1,32 @@
+package com.example.SpringToDo.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "todo.replicas")
+public class ReplicaProperties {
+    private boolean enabled;
+    private List<Replica> urls = new ArrayList<>();
+    //реплика с отставанием больше этого исключается из чтения до следующей проверки
+    private long maxLagMs = 5000;
+    private long healthCheckIntervalMs = 5000;
+    //запрос на реплике, возвращающий отставание в миллисекундах; пустой — отставание не проверяется
+    private String lagQuery;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+
+    //сколько после записи клиент читает с основной базы: реплика может отставать на max-lag-ms
+    //плюс время до следующей проверки
+    public long getReadYourWritesWindowMs() {
+        return maxLagMs + healthCheckIntervalMs;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.SpringToDo.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Отправляет read-only транзакции на реплики по кругу, всё остальное — на основную базу.
+ * Реплика участвует в чтении, только если последняя проверка прошла и отставание не больше maxLagMs;
+ * если здоровых реплик нет, чтение идёт на основную базу. Ключ выбирается при получении соединения,
+ * поэтому источник оборачивается в LazyConnectionDataSourceProxy: к первому запросу транзакция уже помечена read-only.
+ * Все запросы одной транзакции идут через одно соединение, то есть на одну реплику.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> LAST_READ_FROM_REPLICA = new ThreadLocal<>();
+
+    private final List<DataSource> replicas;
+    private final long maxLagMs;
+    private final String lagQuery;
+    //индексы реплик, прошедших последнюю проверку; заменяется целиком одним потоком проверки
+    private volatile List<Integer> healthy = List.of();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long maxLagMs, String lagQuery) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMs = maxLagMs;
+        this.lagQuery = lagQuery;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    //чтение своих записей: до unpin() текущий поток читает только с основной базы
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    //последнее соединение текущего потока выдано репликой: прочитанное может отставать от основной базы
+    public static boolean isLastReadFromReplica() {
+        return LAST_READ_FROM_REPLICA.get() != null;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Object key = lookupKey();
+        if (PRIMARY.equals(key)) {
+            LAST_READ_FROM_REPLICA.remove();
+        } else {
+            LAST_READ_FROM_REPLICA.set(Boolean.TRUE);
+        }
+        return key;
+    }
+
+    private Object lookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        List<Integer> available = healthy;
+        if (available.isEmpty()) {
+            return PRIMARY;
+        }
+        return available.get(Math.floorMod(next.getAndIncrement(), available.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${todo.replicas.health-check-interval-ms:5000}",
+            initialDelayString = "${todo.replicas.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        List<Integer> previous = healthy;
+        List<Integer> available = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            boolean ok = check(replicas.get(i));
+            if (ok) {
+                available.add(i);
+            }
+            if (ok != previous.contains(i)) {
+                log.info("Read replica {} is {}", i, ok ? "available" : "excluded");
+            }
+        }
+        healthy = List.copyOf(available);
+    }
+
+    public List<Integer> getHealthyReplicas() {
+        return healthy;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private boolean check(DataSource replica) {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(2)) {
+                return false;
+            }
+        } catch (Exception e) {
+            log.debug("Read replica health check failed", e);
+            return false;
+        }
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return true;
+        }
+        try {
+            Long lag = new JdbcTemplate(replica).queryForObject(lagQuery, Long.class);
+            return lag != null && lag <= maxLagMs;
+        } catch (Exception e) {
+            log.debug("Read replica lag query failed", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.SpringToDo.dto;
+
+import com.example.SpringToDo.model.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchOperationDTO {
+    public enum Operation {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    private Operation op;
+
+    //для UPDATE и DELETE
+    private Integer id;
+
+    //для CREATE и UPDATE
+    private String title;
+    private String description;
+    private LocalDate dueDate;
+    private TaskStatus status;
+}
@@ -0,0 +1,25 @@
+package com.example.SpringToDo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchResultDTO {
+    //позиция операции во входном списке
+    private int index;
+    private TaskBatchOperationDTO.Operation op;
+    private Integer id;
+    private boolean success;
+    private String error;
+
+    public static TaskBatchResultDTO success(int index, TaskBatchOperationDTO.Operation op, Integer id) {
+        return new TaskBatchResultDTO(index, op, id, true, null);
+    }
+
+    public static TaskBatchResultDTO failure(int index, TaskBatchOperationDTO.Operation op, Integer id, String error) {
+        return new TaskBatchResultDTO(index, op, id, false, error);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.SpringToDo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskIngestStatusDTO {
+    public enum State {
+        QUEUED,
+        CREATED,
+        FAILED
+    }
+
+    private String trackingId;
+    private State state;
+
+    //id созданной задачи, пока задача в очереди — null
+    private Integer taskId;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.example.SpringToDo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPageDTO {
+    private List<TaskDTO> items;
+
+    //курсор следующей страницы, null если страница последняя
+    private String next;
+}
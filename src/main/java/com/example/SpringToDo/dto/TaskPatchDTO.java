@@ -0,0 +1,26 @@
+package com.example.SpringToDo.dto;
+
+import com.example.SpringToDo.model.TaskStatus;
+import jakarta.validation.constraints.FutureOrPresent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+//частичное обновление: null означает "поле не менять"
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPatchDTO {
+    private String title;
+    private String description;
+
+    @FutureOrPresent(message = "Due date cannot be in the past")
+    private LocalDate dueDate;
+
+    private TaskStatus status;
+
+    //ожидаемая версия; можно передать и заголовком If-Match
+    private Long version;
+}
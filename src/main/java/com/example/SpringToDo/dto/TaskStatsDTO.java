@@ -0,0 +1,22 @@
+package com.example.SpringToDo.dto;
+
+import com.example.SpringToDo.model.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatsDTO {
+    private long total;
+    private Map<TaskStatus, Long> byStatus;
+
+    //незавершённые задачи со сроком раньше сегодняшнего дня
+    private long overdue;
+
+    //незавершённые задачи со сроком с сегодняшнего дня до конца недели (воскресенье)
+    private long dueThisWeek;
+}
@@ -0,0 +1,15 @@
+package com.example.SpringToDo.dto;
+
+import com.example.SpringToDo.model.TaskStatus;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+//поля задачи, от которых зависят статистика и напоминания; version — чтобы не применять устаревшие события
+@Value
+public class TaskStatsEntryDTO {
+    int id;
+    TaskStatus status;
+    LocalDate dueDate;
+    Long version;
+}
@@ -0,0 +1,31 @@
+package com.example.SpringToDo.event;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Публикуется {@link com.example.SpringToDo.service.TaskService} на каждое изменение задачи внутри транзакции записи.
+ */
+@Value
+@AllArgsConstructor
+public class TaskChangedEvent {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    Type type;
+    int id;
+
+    //состояние после изменения, для DELETED — null
+    TaskDTO task;
+
+    //версия записанной строки, для DELETED — версия удалённой; null, если неизвестна
+    Long version;
+
+    public TaskChangedEvent(Type type, int id, TaskDTO task) {
+        this(type, id, task, task != null ? task.getVersion() : null);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.SpringToDo.event;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Раздаёт закоммиченные {@link TaskChangedEvent} подписчикам (SSE-клиентам) внутри процесса.
+ * Публикующий поток только кладёт событие в буфер подписчика; отправкой занимается отдельный виртуальный поток,
+ * так что медленный клиент не задерживает запись задач. В буфере хранится последнее событие по каждой задаче,
+ * а подписчик, у которого в буфере накопилось больше {@code bufferSize} разных задач, отключается.
+ */
+@Slf4j
+@Component
+public class TaskEventBus {
+    private final int bufferSize;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TaskEventBus(@Value("${todo.stream.buffer-size:256}") int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    //получатель событий одного подписчика; вызовы приходят из одного потока за раз
+    public interface Sink {
+        void send(TaskChangedEvent event) throws Exception;
+
+        //проверка живости соединения, когда событий давно не было
+        default void heartbeat() throws Exception {
+        }
+
+        void close();
+    }
+
+    public Subscription subscribe(Sink sink) {
+        Subscription subscription = new Subscription(sink);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${todo.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            subscription.heartbeat();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(Subscription::cancel);
+        senders.shutdownNow();
+    }
+
+    public final class Subscription {
+        private final Sink sink;
+        private final ReentrantLock lock = new ReentrantLock();
+        //id задачи -> последнее событие по ней, в порядке первого появления
+        private final Map<Integer, TaskChangedEvent> pending = new LinkedHashMap<>();
+        private boolean sending;
+        private boolean closed;
+
+        private Subscription(Sink sink) {
+            this.sink = sink;
+        }
+
+        void offer(TaskChangedEvent event) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                if (!pending.containsKey(event.getId()) && pending.size() >= bufferSize) {
+                    log.debug("Dropping slow task stream subscriber: {} events pending", pending.size());
+                    closeLocked();
+                    return;
+                }
+                pending.put(event.getId(), event);
+                if (!sending) {
+                    sending = true;
+                    senders.execute(this::drain);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void heartbeat() {
+            lock.lock();
+            try {
+                if (closed || sending) {
+                    return;
+                }
+                sending = true;
+            } finally {
+                lock.unlock();
+            }
+            senders.execute(() -> {
+                try {
+                    sink.heartbeat();
+                } catch (Exception e) {
+                    cancel();
+                    return;
+                }
+                drain();
+            });
+        }
+
+        //отписка по инициативе клиента: закрытие соединения, таймаут
+        public void cancel() {
+            lock.lock();
+            try {
+                if (!closed) {
+                    closeLocked();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                TaskChangedEvent event;
+                lock.lock();
+                try {
+                    Iterator<TaskChangedEvent> iterator = pending.values().iterator();
+                    if (closed || !iterator.hasNext()) {
+                        sending = false;
+                        return;
+                    }
+                    event = iterator.next();
+                    iterator.remove();
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    sink.send(event);
+                } catch (Exception e) {
+                    cancel();
+                    return;
+                }
+            }
+        }
+
+        private void closeLocked() {
+            closed = true;
+            pending.clear();
+            subscriptions.remove(this);
+            sink.close();
+        }
+    }
+}
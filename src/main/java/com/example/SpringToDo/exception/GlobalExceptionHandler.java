@@ -1,7 +1,9 @@
 package com.example.SpringToDo.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -22,6 +24,20 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>("Внутренняя ошибка сервера", HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    //обновление по устаревшей версии задачи
+    @ExceptionHandler({TaskConflictException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<String> handleConflict(RuntimeException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    //очередь асинхронного создания переполнена — клиент повторяет позже
+    @ExceptionHandler(TaskIngestRejectedException.class)
+    public ResponseEntity<String> handleIngestRejected(TaskIngestRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
     //обработка ошибки, когда элемент по ID не найден
     @ExceptionHandler(TaskNotFoundException.class)
     public ResponseEntity<String> handleTaskNotFound(TaskNotFoundException ex) {
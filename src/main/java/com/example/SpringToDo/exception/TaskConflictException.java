@@ -0,0 +1,7 @@
+package com.example.SpringToDo.exception;
+
+public class TaskConflictException extends RuntimeException {
+    public TaskConflictException(int id, long expectedVersion) {
+        super("Task with id " + id + " was modified concurrently, expected version " + expectedVersion);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.SpringToDo.exception;
+
+public class TaskIngestRejectedException extends RuntimeException {
+    public TaskIngestRejectedException(int capacity) {
+        super("Ingest queue is full (" + capacity + " tasks), retry later");
+    }
+}
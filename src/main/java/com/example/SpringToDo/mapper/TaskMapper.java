@@ -1,5 +1,6 @@
 package com.example.SpringToDo.mapper;
 
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
 import com.example.SpringToDo.dto.TaskCreateDTO;
 import com.example.SpringToDo.dto.TaskDTO;
 import com.example.SpringToDo.model.Task;
@@ -27,7 +28,8 @@ public class TaskMapper {
                 task.getTitle(),
                 task.getDescription(),
                 task.getDueDate(),
-                task.getStatus()
+                task.getStatus(),
+                task.getVersion()
         );
     }
 
@@ -38,6 +40,9 @@ public class TaskMapper {
         task.setDescription(dto.getDescription());
         task.setDueDate(dto.getDueDate());
         task.setStatus(dto.getStatus());
+        if (dto.getVersion() != null) {
+            task.setVersion(dto.getVersion());
+        }
         return task;
     }
 
@@ -50,6 +55,16 @@ public class TaskMapper {
         return task;
     }
 
+    public Task toEntity(TaskBatchOperationDTO dto) {
+        Task task = new Task();
+        task.setId(dto.getId() != null ? dto.getId() : 0);
+        task.setTitle(dto.getTitle());
+        task.setDescription(dto.getDescription());
+        task.setDueDate(dto.getDueDate());
+        task.setStatus(dto.getStatus());
+        return task;
+    }
+
     public List<TaskDTO> toDtoList(List<Task> tasks) {
         return tasks.stream()
                 .map(this::toDto)
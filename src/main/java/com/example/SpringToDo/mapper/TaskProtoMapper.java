@@ -0,0 +1,85 @@
+package com.example.SpringToDo.mapper;
+
+import com.example.SpringToDo.dto.TaskCreateDTO;
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskPageDTO;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.proto.Task;
+import com.example.SpringToDo.proto.TaskList;
+import com.example.SpringToDo.proto.TaskPage;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+//DTO <-> сообщения из task.proto для application/x-protobuf
+@Component
+public class TaskProtoMapper {
+
+    public Task toProto(TaskDTO dto) {
+        Task.Builder builder = Task.newBuilder()
+                .setId(dto.getId())
+                .setStatus(toProto(dto.getStatus()));
+        if (dto.getTitle() != null) {
+            builder.setTitle(dto.getTitle());
+        }
+        if (dto.getDescription() != null) {
+            builder.setDescription(dto.getDescription());
+        }
+        if (dto.getDueDate() != null) {
+            builder.setDueDate(dto.getDueDate().toEpochDay());
+        }
+        if (dto.getVersion() != null) {
+            builder.setVersion(dto.getVersion());
+        }
+        return builder.build();
+    }
+
+    public TaskList toProtoList(Collection<TaskDTO> dtos) {
+        TaskList.Builder builder = TaskList.newBuilder();
+        for (TaskDTO dto : dtos) {
+            builder.addTasks(toProto(dto));
+        }
+        return builder.build();
+    }
+
+    public TaskPage toProto(TaskPageDTO page) {
+        TaskPage.Builder builder = TaskPage.newBuilder();
+        for (TaskDTO dto : page.getItems()) {
+            builder.addItems(toProto(dto));
+        }
+        if (page.getNext() != null) {
+            builder.setNext(page.getNext());
+        }
+        return builder.build();
+    }
+
+    public TaskDTO toDto(Task task) {
+        return new TaskDTO(task.getId(),
+                task.getTitle(),
+                task.hasDescription() ? task.getDescription() : null,
+                task.hasDueDate() ? LocalDate.ofEpochDay(task.getDueDate()) : null,
+                toStatus(task.getStatus()),
+                task.hasVersion() ? task.getVersion() : null);
+    }
+
+    public TaskCreateDTO toCreateDto(Task task) {
+        return new TaskCreateDTO(task.getTitle(),
+                task.hasDescription() ? task.getDescription() : null,
+                task.hasDueDate() ? LocalDate.ofEpochDay(task.getDueDate()) : null,
+                toStatus(task.getStatus()));
+    }
+
+    private static Task.Status toProto(TaskStatus status) {
+        return status == null ? Task.Status.STATUS_UNSPECIFIED : Task.Status.valueOf(status.name());
+    }
+
+    private static TaskStatus toStatus(Task.Status status) {
+        return switch (status) {
+            case TODO -> TaskStatus.TODO;
+            case IN_PROGRESS -> TaskStatus.IN_PROGRESS;
+            case DONE -> TaskStatus.DONE;
+            case STATUS_UNSPECIFIED, UNRECOGNIZED -> null;
+        };
+    }
+}
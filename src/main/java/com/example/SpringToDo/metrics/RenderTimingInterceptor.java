@@ -0,0 +1,77 @@
+package com.example.SpringToDo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время отрисовки HTML-страниц: web.render.first.byte — от начала обработки до первой отправки байтов клиенту,
+ * web.render — до конца ответа. Теги: view и mode (атрибут запроса {@link #MODE_ATTRIBUTE}, например page или all).
+ * Первую отправку отмечает сам обработчик через {@link #markFirstByte}; если он этого не делал,
+ * страница уходила одним куском и первый байт совпадает с концом ответа.
+ */
+@RequiredArgsConstructor
+public class RenderTimingInterceptor implements HandlerInterceptor {
+    public static final String RENDER_METRIC = "web.render";
+    public static final String FIRST_BYTE_METRIC = "web.render.first.byte";
+    public static final String MODE_ATTRIBUTE = RenderTimingInterceptor.class.getName() + ".mode";
+    private static final String START_ATTRIBUTE = RenderTimingInterceptor.class.getName() + ".start";
+    private static final String FIRST_BYTE_ATTRIBUTE = RenderTimingInterceptor.class.getName() + ".firstByte";
+    private static final String VIEW_ATTRIBUTE = RenderTimingInterceptor.class.getName() + ".view";
+
+    private final MeterRegistry meterRegistry;
+
+    public static void markFirstByte(HttpServletRequest request) {
+        if (request.getAttribute(FIRST_BYTE_ATTRIBUTE) == null) {
+            request.setAttribute(FIRST_BYTE_ATTRIBUTE, System.nanoTime());
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView != null && modelAndView.getViewName() != null) {
+            request.setAttribute(VIEW_ATTRIBUTE, modelAndView.getViewName());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        Object view = request.getAttribute(VIEW_ATTRIBUTE);
+        //редиректы и ответы без шаблона не учитываются
+        if (start == null || view == null || view.toString().startsWith("redirect:")) {
+            return;
+        }
+        long end = System.nanoTime();
+        Object firstByte = request.getAttribute(FIRST_BYTE_ATTRIBUTE);
+        Object mode = request.getAttribute(MODE_ATTRIBUTE);
+        String modeTag = mode != null ? mode.toString() : "page";
+        record(RENDER_METRIC, "HTML page handling and rendering time", view, modeTag, end - (long) start);
+        record(FIRST_BYTE_METRIC, "Time until the first part of an HTML page is sent", view, modeTag,
+                (firstByte != null ? (long) firstByte : end) - (long) start);
+    }
+
+    private void record(String name, String description, Object view, String mode, long nanos) {
+        Timer.builder(name)
+                .description(description)
+                .tag("view", view.toString())
+                .tag("mode", mode)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -4,16 +4,28 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_task_status", columnList = "status"),
+        @Index(name = "idx_task_due_date", columnList = "due_date"),
+        @Index(name = "idx_task_status_due_date", columnList = "status, due_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+//UPDATE только изменённых колонок — для PATCH
+@DynamicUpdate
 public class Task {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //pooled-последовательность вместо IDENTITY: Hibernate берёт id пачками и может батчить INSERT
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private int id;
 
     private String title;
@@ -22,4 +34,27 @@ public class Task {
 
     @Enumerated(EnumType.STRING)
     private TaskStatus status;
+
+    //default 0 — чтобы колонка добавилась к уже заполненной таблице
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
+    //момент перехода в DONE, от него архивация считает возраст; у незавершённых — null. У задач, выполненных
+    //до появления колонки, тоже null: их возраст считается по сроку
+    private Instant completedAt;
+
+    public Task(int id, String title, String description, LocalDate dueDate, TaskStatus status) {
+        this(id, title, description, dueDate, status, 0, status == TaskStatus.DONE ? Instant.now() : null);
+    }
+
+    //время выполнения ставится только при переходе в DONE: повторное сохранение выполненной задачи его не сдвигает
+    public void setStatus(TaskStatus status) {
+        if (status != TaskStatus.DONE) {
+            completedAt = null;
+        } else if (this.status != TaskStatus.DONE) {
+            completedAt = Instant.now();
+        }
+        this.status = status;
+    }
 }
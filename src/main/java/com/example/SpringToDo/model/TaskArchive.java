@@ -0,0 +1,37 @@
+package com.example.SpringToDo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Архив выполненных задач: строки переносятся сюда из task с тем же id и версией, чтобы основная таблица
+ * оставалась маленькой. Возвращаются обратно через TaskService.restoreTask.
+ */
+@Entity
+@Table(name = "task_archive", indexes = {
+        @Index(name = "idx_task_archive_status", columnList = "status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskArchive {
+    //id исходной задачи, новых не выдаётся
+    @Id
+    private int id;
+
+    private String title;
+    private String description;
+    private LocalDate dueDate;
+
+    @Enumerated(EnumType.STRING)
+    private TaskStatus status;
+
+    private long version;
+
+    private Instant archivedAt;
+}
@@ -0,0 +1,24 @@
+package com.example.SpringToDo.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Однострочная таблица-маркер изменений: revision растёт на каждую транзакцию, изменившую задачи.
+ * По ней строится ETag списков без чтения самих задач.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskRevision {
+    public static final int ID = 1;
+
+    @Id
+    private int id;
+
+    private long revision;
+}
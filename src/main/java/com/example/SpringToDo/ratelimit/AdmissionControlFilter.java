@@ -0,0 +1,193 @@
+package com.example.SpringToDo.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Допуск запросов к /api/v1/tasks до контроллера (todo.admission.enabled). Каждый клиент получает свою
+ * {@link TokenBucket} на каждый {@link EndpointClass}: при пустой корзине ответ 429 с Retry-After до следующего токена.
+ * Для классов с max-concurrent число одновременных запросов на сервер ограничено семафором: без свободного места
+ * за queue-timeout-ms ответ 503 с Retry-After: 1. Так всплеск тяжёлых списков не занимает все соединения пула
+ * и не задерживает дешёвые запросы задачи по id.
+ * Отказы — счётчик admission.rejected (теги class, reason), занятые места — admission.in.flight.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    public static final String REJECTED_METRIC = "admission.rejected";
+    public static final String IN_FLIGHT_METRIC = "admission.in.flight";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AdmissionProperties properties;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final Map<EndpointClass, Semaphore> slots = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rateRejections = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> concurrencyRejections = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControlFilter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(Duration.ofMinutes(properties.getIdleMinutes()))
+                .build();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+            rateRejections.put(endpointClass, rejectedCounter(meterRegistry, tag, "rate"));
+            concurrencyRejections.put(endpointClass, rejectedCounter(meterRegistry, tag, "concurrency"));
+            int maxConcurrent = properties.getLimit(endpointClass).getMaxConcurrent();
+            if (maxConcurrent > 0) {
+                Semaphore semaphore = new Semaphore(maxConcurrent);
+                slots.put(endpointClass, semaphore);
+                Gauge.builder(IN_FLIGHT_METRIC, semaphore, s -> maxConcurrent - s.availablePermits())
+                        .description("Requests currently holding an admission slot")
+                        .tag("class", tag)
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String endpointClass, String reason) {
+        return Counter.builder(REJECTED_METRIC)
+                .description("Requests rejected by admission control")
+                .tag("class", endpointClass)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith(EndpointClass.API_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        AdmissionProperties.Limit limit = properties.getLimit(endpointClass);
+
+        TokenBucket bucket = buckets.get(new BucketKey(endpointClass, clientId(request)),
+                key -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond()));
+        long waitNanos = bucket.tryAcquire();
+        if (waitNanos > 0) {
+            rateRejections.get(endpointClass).increment();
+            long retryAfterSeconds = (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds, "Rate limit exceeded, retry later");
+            return;
+        }
+
+        Semaphore semaphore = slots.get(endpointClass);
+        if (semaphore == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!acquire(semaphore, limit.getQueueTimeoutMs())) {
+            concurrencyRejections.get(endpointClass).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is busy, retry later");
+            return;
+        }
+        Release release = new Release(semaphore);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            //выгрузка продолжается асинхронно: место освобождается, когда ответ дописан
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(release);
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String header = properties.getClientHeader();
+        if (header != null && !header.isBlank()) {
+            String value = request.getHeader(header);
+            if (value != null && !value.isBlank()) {
+                return value;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static boolean acquire(Semaphore semaphore, long timeoutMs) {
+        if (timeoutMs <= 0) {
+            return semaphore.tryAcquire();
+        }
+        try {
+            return semaphore.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+                               String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(message);
+    }
+
+    private record BucketKey(EndpointClass endpointClass, String clientId) {
+    }
+
+    //место освобождается ровно один раз: по завершении, ошибке или таймауту асинхронного ответа
+    private static final class Release implements AsyncListener, Runnable {
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Release(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public void run() {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
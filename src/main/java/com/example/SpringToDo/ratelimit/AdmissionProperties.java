@@ -0,0 +1,41 @@
+package com.example.SpringToDo.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "todo.admission")
+public class AdmissionProperties {
+    private boolean enabled;
+    //заголовок с идентификатором клиента (например X-Api-Key); пустой или отсутствующий — адрес клиента
+    private String clientHeader;
+    //корзин в памяти; дольше idle-minutes без запросов корзина полная и удаляется
+    private long maxClients = 100_000;
+    private long idleMinutes = 10;
+    private Limit read = new Limit(200, 100, 0, 0);
+    private Limit write = new Limit(50, 20, 0, 0);
+    private Limit heavy = new Limit(10, 2, 16, 0);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        //запросов подряд на клиента и скорость пополнения в секунду
+        private long capacity;
+        private double refillPerSecond;
+        //одновременных запросов класса на весь сервер, 0 — без ограничения
+        private int maxConcurrent;
+        //сколько ждать свободного места, прежде чем ответить 503
+        private long queueTimeoutMs;
+    }
+
+    public Limit getLimit(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case READ -> read;
+            case WRITE -> write;
+            case HEAVY -> heavy;
+        };
+    }
+}
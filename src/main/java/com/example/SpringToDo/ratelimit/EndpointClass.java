@@ -0,0 +1,34 @@
+package com.example.SpringToDo.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Классы запросов к /api/v1/tasks с отдельными лимитами: дешёвое чтение (задача по id, страница с курсором,
+ * /due, /stats, /stream), изменения и тяжёлые запросы — полный список с сортировкой или фильтром, поиск, выгрузка.
+ */
+public enum EndpointClass {
+    READ,
+    WRITE,
+    HEAVY;
+
+    static final String API_PATH = "/api/v1/tasks";
+
+    public static EndpointClass of(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return WRITE;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        //без limit и after список отдаётся целиком
+        if (path.equals(API_PATH)) {
+            return request.getParameter("limit") == null && request.getParameter("after") == null ? HEAVY : READ;
+        }
+        if (path.equals(API_PATH + "/search") || path.equals(API_PATH + "/export")) {
+            return HEAVY;
+        }
+        return READ;
+    }
+}
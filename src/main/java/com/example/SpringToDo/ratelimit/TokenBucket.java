@@ -0,0 +1,49 @@
+package com.example.SpringToDo.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Маркерная корзина без блокировок: вмещает capacity токенов и пополняется со скоростью refillPerSecond.
+ * Состояние — одно число, момент, когда корзина снова станет полной (GCRA), и меняется через compareAndSet,
+ * поэтому проверка стоит несколько наносекунд и не блокирует соседние запросы того же клиента.
+ */
+public final class TokenBucket {
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    //момент, к которому выданные токены полностью восстановятся; в прошлом — корзина полная
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(long capacity, double refillPerSecond, LongSupplier nanoClock) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket needs capacity >= 1 and refill rate > 0");
+        }
+        this.nanosPerToken = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = capacity * nanosPerToken;
+        this.nanoClock = nanoClock;
+        this.fullAt = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Забирает токен. Возвращает 0, если токен выдан, иначе — сколько наносекунд ждать до следующего токена.
+     */
+    public long tryAcquire() {
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
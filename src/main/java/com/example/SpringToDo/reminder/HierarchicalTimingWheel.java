@@ -0,0 +1,149 @@
+package com.example.SpringToDo.reminder;
+
+import java.util.function.Consumer;
+
+/**
+ * Иерархическое колесо таймеров: levels колёс по wheelSize ячеек, ячейка уровня L покрывает wheelSize^L тиков.
+ * Таймер кладётся в ячейку по сроку, при переходе младшего колеса через ноль ячейка старшего уровня
+ * раскладывается вниз. Постановка и отмена — O(1) (ячейка — двусвязный список), тик — O(таймеров в ячейке).
+ * Сроки дальше wheelSize^levels тиков ждут в последней ячейке верхнего уровня и перекладываются при её разборе.
+ * Не потокобезопасен: вызывающий держит свою блокировку.
+ */
+public final class HierarchicalTimingWheel<T extends HierarchicalTimingWheel.Timer> {
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    //головы-заглушки списков: [уровень][ячейка]
+    private final Timer[][] slots;
+    //последний обработанный тик: все таймеры со сроком не позже уже отданы
+    private long currentTick;
+    private int size;
+
+    /** Узел колеса; наследник хранит полезные данные, чтобы на таймер приходился один объект. */
+    public abstract static class Timer {
+        private long deadlineTick;
+        private Timer prev;
+        private Timer next;
+
+        public boolean isScheduled() {
+            return prev != null;
+        }
+    }
+
+    private static final class Head extends Timer {
+    }
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis < 1 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1 || levels < 1
+                || (long) Integer.numberOfTrailingZeros(wheelSize) * levels > 62) {
+            throw new IllegalArgumentException("Timing wheel needs tick >= 1 ms, a power-of-two size and a range within 2^62 ticks");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.slots = new Timer[levels][wheelSize];
+        for (Timer[] level : slots) {
+            for (int i = 0; i < wheelSize; i++) {
+                Timer head = new Head();
+                head.prev = head;
+                head.next = head;
+                level[i] = head;
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Ставит таймер на момент deadlineMillis; уже прошедший срок сработает на ближайшем тике. */
+    public void schedule(T timer, long deadlineMillis) {
+        if (timer.isScheduled()) {
+            throw new IllegalStateException("Timer is already scheduled");
+        }
+        //срабатывает на первом тике не раньше срока
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        Timer node = timer;
+        node.deadlineTick = Math.max(deadlineTick, currentTick + 1);
+        place(node);
+        size++;
+    }
+
+    public boolean cancel(T timer) {
+        if (!timer.isScheduled()) {
+            return false;
+        }
+        unlink((Timer) timer);
+        size--;
+        return true;
+    }
+
+    /** Продвигает колесо до nowMillis и отдаёт сработавшие таймеры в порядке тиков. */
+    @SuppressWarnings("unchecked")
+    public void advanceTo(long nowMillis, Consumer<? super T> expired) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            //пустое колесо не нужно прокручивать по тику
+            if (size == 0) {
+                currentTick = targetTick;
+                return;
+            }
+            currentTick++;
+            cascade();
+            Timer head = slots[0][(int) (currentTick & mask)];
+            while (head.next != head) {
+                Timer timer = head.next;
+                unlink(timer);
+                size--;
+                expired.accept((T) timer);
+            }
+        }
+    }
+
+    //младшее колесо прошло круг: ячейки старших уровней, чей интервал начался, раскладываются заново
+    private void cascade() {
+        for (int level = 1; level < levels; level++) {
+            if ((currentTick & ((1L << (bits * level)) - 1)) != 0) {
+                return;
+            }
+            Timer head = slots[level][(int) ((currentTick >>> (bits * level)) & mask)];
+            Timer timer = head.next;
+            head.next = head;
+            head.prev = head;
+            while (timer != head) {
+                Timer next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                place(timer);
+                timer = next;
+            }
+        }
+    }
+
+    private void place(Timer timer) {
+        long delta = timer.deadlineTick - currentTick;
+        int level = 0;
+        while (level < levels - 1 && delta >= 1L << (bits * (level + 1))) {
+            level++;
+        }
+        //дальше диапазона колеса — в последнюю ячейку верхнего уровня
+        long slotTick = delta < 1L << (bits * levels)
+                ? timer.deadlineTick
+                : currentTick + (1L << (bits * levels)) - 1;
+        Timer head = slots[level][(int) ((slotTick >>> (bits * level)) & mask)];
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+    }
+
+    private static void unlink(Timer timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+    }
+}
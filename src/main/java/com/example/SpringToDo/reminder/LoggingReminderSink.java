@@ -0,0 +1,20 @@
+package com.example.SpringToDo.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.reminders.enabled", havingValue = "true")
+public class LoggingReminderSink implements ReminderSink {
+
+    @Override
+    public void send(List<TaskReminder> reminders) {
+        for (TaskReminder reminder : reminders) {
+            log.info("Task {} {} (due {})", reminder.getTaskId(), reminder.getType(), reminder.getDueDate());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.SpringToDo.reminder;
+
+import java.util.List;
+
+/**
+ * Получатель напоминаний. Каждый получатель вызывается из своего потока, по одному вызову за раз,
+ * со всеми напоминаниями одного тика; ошибка одного получателя не мешает остальным.
+ */
+public interface ReminderSink {
+    void send(List<TaskReminder> reminders) throws Exception;
+}
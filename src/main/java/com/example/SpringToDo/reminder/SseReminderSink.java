@@ -0,0 +1,51 @@
+package com.example.SpringToDo.reminder;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Напоминания в SSE-соединения GET /api/v1/tasks/reminders/stream: имя события — due_soon/overdue,
+ * данные — TaskReminder в JSON. Соединение, в которое не удалось записать, закрывается.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.reminders.enabled", havingValue = "true")
+public class SseReminderSink implements ReminderSink {
+    private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+
+    public SseEmitter subscribe(long timeoutMs) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return emitters.size();
+    }
+
+    @Override
+    public void send(List<TaskReminder> reminders) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                for (TaskReminder reminder : reminders) {
+                    emitter.send(SseEmitter.event()
+                            .name(reminder.getType().name().toLowerCase(Locale.ROOT))
+                            .data(reminder, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.SpringToDo.reminder;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Напоминание о сроке задачи, отправляется в {@link ReminderSink}: DUE_SOON — срок скоро наступит,
+ * OVERDUE — день срока закончился, а задача не выполнена.
+ */
+@Value
+public class TaskReminder {
+    public enum Type {
+        DUE_SOON,
+        OVERDUE
+    }
+
+    Type type;
+    int taskId;
+    LocalDate dueDate;
+    Instant firedAt;
+}
@@ -0,0 +1,314 @@
+package com.example.SpringToDo.reminder;
+
+import com.example.SpringToDo.dto.TaskStatsEntryDTO;
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Напоминания о сроках (todo.reminders.enabled) без опроса таблицы: при старте сроки незавершённых задач
+ * раскладываются по {@link HierarchicalTimingWheel}, дальше колесо обновляется по {@link TaskChangedEvent}
+ * после коммита, а тик раз в tick-ms отдаёт наступившие напоминания получателям {@link ReminderSink}.
+ * DUE_SOON срабатывает за due-soon-hours до конца дня срока, OVERDUE — в конце этого дня (в часовом поясе сервера).
+ * Планируется только следующее ещё не наступившее напоминание: после перезапуска прошедшие не повторяются.
+ * Тик идёт в собственном потоке: общий планировщик Spring занят сверками и архивацией, и тик ждал бы их окончания.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.reminders.enabled", havingValue = "true")
+public class TaskReminderScheduler {
+    public static final String PENDING_METRIC = "reminders.pending";
+    public static final String SENT_METRIC = "reminders.sent";
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+    //события приходят не по порядку в пределах долей секунды: столько последних снятых напоминаний помнят версию
+    private static final int MAX_REMOVED_VERSIONS = 10_000;
+
+    private final TaskRepository repository;
+    private final List<ReminderSink> sinks;
+    private final Clock clock;
+    private final Duration dueSoon;
+    private final long tickMs;
+    private final Map<TaskReminder.Type, Counter> sent = new EnumMap<>(TaskReminder.Type.class);
+    //по одному потоку на получателя: пачки уходят по очереди, в порядке срабатывания
+    private final Map<ReminderSink, ExecutorService> senders = new HashMap<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("reminder-tick").daemon().factory());
+
+    //колесо и таймеры по id задачи меняются только под блокировкой
+    private final ReentrantLock lock = new ReentrantLock();
+    private final HierarchicalTimingWheel<ReminderTimer> wheel;
+    private final Map<Integer, ReminderTimer> timers = new HashMap<>();
+    //id задачи без напоминания -> последняя применённая версия: запоздавшее старое событие не вернёт напоминание
+    //выполненной или удалённой задаче
+    private final Map<Integer, Long> removedVersions = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Long> eldest) {
+            return size() > MAX_REMOVED_VERSIONS;
+        }
+    };
+    //пока идёт загрузка, события запоминаются и применяются повторно поверх снимка из базы
+    private List<TaskChangedEvent> pendingDuringLoad;
+
+    public TaskReminderScheduler(TaskRepository repository,
+                                 List<ReminderSink> sinks,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${todo.reminders.due-soon-hours:24}") long dueSoonHours,
+                                 @Value("${todo.reminders.tick-ms:1000}") long tickMs) {
+        this(repository, sinks, meterRegistry, Clock.systemDefaultZone(), Duration.ofHours(dueSoonHours), tickMs);
+    }
+
+    TaskReminderScheduler(TaskRepository repository, List<ReminderSink> sinks, MeterRegistry meterRegistry,
+                          Clock clock, Duration dueSoon, long tickMs) {
+        this.repository = repository;
+        this.sinks = sinks;
+        this.clock = clock;
+        this.dueSoon = dueSoon;
+        this.tickMs = tickMs;
+        this.wheel = new HierarchicalTimingWheel<>(tickMs, WHEEL_SIZE, WHEEL_LEVELS, clock.millis());
+        sinks.forEach(sink -> senders.put(sink, Executors.newSingleThreadExecutor(
+                Thread.ofVirtual().name("reminder-sink-" + sink.getClass().getSimpleName()).factory())));
+        for (TaskReminder.Type type : TaskReminder.Type.values()) {
+            sent.put(type, Counter.builder(SENT_METRIC)
+                    .description("Task reminders handed to sinks")
+                    .tag("type", type.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        Gauge.builder(PENDING_METRIC, this, TaskReminderScheduler::getPendingCount)
+                .description("Scheduled task reminders")
+                .register(meterRegistry);
+    }
+
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.lock();
+        try {
+            pendingDuringLoad = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+        List<TaskStatsEntryDTO> entries;
+        try {
+            entries = repository.findStatsEntries();
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                pendingDuringLoad = null;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            Set<Integer> changed = new HashSet<>();
+            pendingDuringLoad.forEach(event -> changed.add(event.getId()));
+            removedVersions.clear();
+            for (TaskStatsEntryDTO entry : entries) {
+                reschedule(entry.getId(), entry.getStatus(), entry.getDueDate(), entry.getVersion());
+                //версии задач без напоминания нужны только событиям, пришедшим во время загрузки
+                if (changed.contains(entry.getId())) {
+                    rememberIfRemoved(entry.getId(), entry.getVersion());
+                }
+            }
+            pendingDuringLoad.forEach(this::apply);
+            pendingDuringLoad = null;
+            log.info("Scheduled {} task reminders", wheel.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        lock.lock();
+        try {
+            apply(event);
+            if (pendingDuringLoad != null) {
+                pendingDuringLoad.add(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //после загрузки, чтобы первый тик не отдал напоминания до того, как колесо заполнено
+    @EventListener(ApplicationReadyEvent.class)
+    public void startTicking() {
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                //исключение из задачи отменило бы все следующие тики
+                log.error("Reminder tick failed", e);
+            }
+        }, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void tick() {
+        List<TaskReminder> fired = new ArrayList<>();
+        lock.lock();
+        try {
+            Instant now = clock.instant();
+            wheel.advanceTo(now.toEpochMilli(), timer -> {
+                fired.add(new TaskReminder(timer.type, timer.taskId, LocalDate.ofEpochDay(timer.dueEpochDay), now));
+                //после DUE_SOON тот же узел ждёт OVERDUE
+                if (timer.type == TaskReminder.Type.DUE_SOON) {
+                    timer.type = TaskReminder.Type.OVERDUE;
+                    wheel.schedule(timer, overdueAt(timer.dueEpochDay));
+                } else {
+                    timers.remove(timer.taskId);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+        if (fired.isEmpty()) {
+            return;
+        }
+        fired.forEach(reminder -> sent.get(reminder.getType()).increment());
+        List<TaskReminder> batch = List.copyOf(fired);
+        for (ReminderSink sink : sinks) {
+            senders.get(sink).execute(() -> send(sink, batch));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        senders.values().forEach(ExecutorService::shutdownNow);
+    }
+
+    private void send(ReminderSink sink, List<TaskReminder> reminders) {
+        try {
+            sink.send(reminders);
+        } catch (Exception e) {
+            log.warn("Reminder sink {} failed for {} reminders", sink.getClass().getSimpleName(), reminders.size(), e);
+        }
+    }
+
+    private void apply(TaskChangedEvent event) {
+        if (isStale(event.getId(), event.getVersion())) {
+            return;
+        }
+        if (event.getType() == TaskChangedEvent.Type.DELETED || event.getTask() == null) {
+            reschedule(event.getId(), null, null, event.getVersion());
+        } else {
+            reschedule(event.getId(), event.getTask().getStatus(), event.getTask().getDueDate(), event.getVersion());
+        }
+        rememberIfRemoved(event.getId(), event.getVersion());
+    }
+
+    //события разных транзакций приходят в произвольном порядке: более старая версия не переносит напоминание
+    //и не возвращает его выполненной или удалённой задаче
+    private boolean isStale(int taskId, Long version) {
+        if (version == null) {
+            return false;
+        }
+        ReminderTimer timer = timers.get(taskId);
+        if (timer != null) {
+            return timer.version > version;
+        }
+        //для удаления это версия удалённой строки: событие той же версии старше удаления
+        Long removed = removedVersions.get(taskId);
+        return removed != null && removed >= version;
+    }
+
+    private void rememberIfRemoved(int taskId, Long version) {
+        if (timers.containsKey(taskId)) {
+            removedVersions.remove(taskId);
+        } else if (version != null) {
+            removedVersions.merge(taskId, version, Math::max);
+        }
+    }
+
+    //снимает прежнее напоминание задачи и ставит ближайшее ненаступившее; завершённым и без срока — ничего
+    private void reschedule(int taskId, TaskStatus status, LocalDate dueDate, Long version) {
+        ReminderTimer timer = timers.get(taskId);
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+        if (status == null || status == TaskStatus.DONE || dueDate == null) {
+            timers.remove(taskId);
+            return;
+        }
+        long now = clock.millis();
+        long overdueAt = overdueAt(dueDate.toEpochDay());
+        if (overdueAt <= now) {
+            timers.remove(taskId);
+            return;
+        }
+        if (timer == null) {
+            timer = new ReminderTimer(taskId);
+            timers.put(taskId, timer);
+        }
+        timer.dueEpochDay = (int) dueDate.toEpochDay();
+        timer.version = version != null ? version : 0;
+        long dueSoonAt = overdueAt - dueSoon.toMillis();
+        if (dueSoonAt > now) {
+            timer.type = TaskReminder.Type.DUE_SOON;
+            wheel.schedule(timer, dueSoonAt);
+        } else {
+            timer.type = TaskReminder.Type.OVERDUE;
+            wheel.schedule(timer, overdueAt);
+        }
+    }
+
+    //срок — весь день: просрочена с начала следующего дня
+    private long overdueAt(long dueEpochDay) {
+        return LocalDate.ofEpochDay(dueEpochDay + 1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    //один узел на задачу: id и срок без ссылок на DTO, чтобы миллион напоминаний не держал строки задач
+    private static final class ReminderTimer extends HierarchicalTimingWheel.Timer {
+        private final int taskId;
+        private int dueEpochDay;
+        private TaskReminder.Type type;
+        private long version;
+
+        private ReminderTimer(int taskId) {
+            this.taskId = taskId;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.SpringToDo.reminder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Заготовка вебхука: POST todo.reminders.webhook-url с JSON-массивом напоминаний одного тика.
+ * Без повторов: неудачная отправка только пишется в лог.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.reminders.webhook-url")
+public class WebhookReminderSink implements ReminderSink {
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper;
+    private final URI url;
+
+    public WebhookReminderSink(ObjectMapper objectMapper, @Value("${todo.reminders.webhook-url}") String url) {
+        this.objectMapper = objectMapper;
+        this.url = URI.create(url);
+    }
+
+    @Override
+    public void send(List<TaskReminder> reminders) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(Duration.ofSeconds(10))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(reminders)))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 300) {
+            log.warn("Reminder webhook {} answered {} for {} reminders", url, response.statusCode(), reminders.size());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.SpringToDo.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Декларативное секционирование task по статусу на PostgreSQL (todo.archive.partition-by-status):
+ * task_open — TODO и IN_PROGRESS, task_done — DONE. Запросы со статусом читают только свою секцию,
+ * а выполненные задачи до архивации не раздувают индексы открытых. Смена статуса переносит строку между секциями.
+ * Существующая таблица один раз переписывается в секционированную в одной транзакции под эксклюзивной блокировкой;
+ * при повторных запусках таблица уже секционирована и ничего не меняется. На других базах настройка игнорируется.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.archive.partition-by-status", havingValue = "true")
+@RequiredArgsConstructor
+public class PostgresTaskPartitioning {
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    //после создания схемы Hibernate и до ApplicationReadyEvent, когда загружаются индексы в памяти
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional
+    public void partitionByStatus() throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if (!"PostgreSQL".equals(product)) {
+            log.info("Task partitioning by status is only supported on PostgreSQL, skipped on {}", product);
+            return;
+        }
+        Boolean partitioned = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p "
+                + "JOIN pg_class c ON c.oid = p.partrelid "
+                + "WHERE c.relname = 'task' AND c.relnamespace = current_schema()::regnamespace)", Boolean.class);
+        if (Boolean.TRUE.equals(partitioned)) {
+            return;
+        }
+        log.info("Converting table task to partitions by status");
+        jdbcTemplate.execute("LOCK TABLE task IN ACCESS EXCLUSIVE MODE");
+        //INCLUDING GENERATED переносит search_vector поиска, если колонка уже создана
+        jdbcTemplate.execute("CREATE TABLE task_partitioned (LIKE task INCLUDING DEFAULTS INCLUDING GENERATED) "
+                + "PARTITION BY LIST (status)");
+        //ключ секционирования обязан входить в первичный ключ; уникальность id обеспечивает task_seq
+        jdbcTemplate.execute("ALTER TABLE task_partitioned ALTER COLUMN status SET NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE task_partitioned ADD PRIMARY KEY (id, status)");
+        jdbcTemplate.execute("CREATE TABLE task_open PARTITION OF task_partitioned FOR VALUES IN ('TODO', 'IN_PROGRESS')");
+        jdbcTemplate.execute("CREATE TABLE task_done PARTITION OF task_partitioned FOR VALUES IN ('DONE')");
+        jdbcTemplate.execute("INSERT INTO task_partitioned "
+                + "(id, title, description, due_date, status, version, completed_at) "
+                + "SELECT id, title, description, due_date, status, version, completed_at FROM task");
+        jdbcTemplate.execute("DROP TABLE task");
+        jdbcTemplate.execute("ALTER TABLE task_partitioned RENAME TO task");
+        //индексы @Table сущности Task: DROP TABLE удалил их вместе со старой таблицей
+        jdbcTemplate.execute("CREATE INDEX idx_task_status ON task (status)");
+        jdbcTemplate.execute("CREATE INDEX idx_task_status_due_date ON task (status, due_date)");
+        jdbcTemplate.execute("CREATE INDEX idx_task_due_date ON task (due_date)");
+        //индекс поиска создаёт db/postgresql/task-search-vector.sql; DROP TABLE удалил его вместе со старой таблицей
+        Boolean searchVector = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() AND table_name = 'task' "
+                + "AND column_name = 'search_vector')", Boolean.class);
+        if (Boolean.TRUE.equals(searchVector)) {
+            jdbcTemplate.execute("CREATE INDEX idx_task_search ON task USING GIN (search_vector)");
+        }
+    }
+}
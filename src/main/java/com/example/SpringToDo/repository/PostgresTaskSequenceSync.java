@@ -0,0 +1,47 @@
+package com.example.SpringToDo.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Сдвигает task_seq за уже занятые id на PostgreSQL. На базе, созданной до перехода с IDENTITY, ddl-auto создаёт
+ * последовательность с 1, и первые INSERT упали бы на первичном ключе. Учитываются и id в task_archive: возврат из
+ * архива идёт с прежним id. Последовательность, уже стоящая впереди, не трогается, поэтому при обычных запусках
+ * это один SELECT. На других базах (H2 в тестах) схема создаётся с нуля, и проверка пропускается.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostgresTaskSequenceSync {
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    //после создания схемы Hibernate и до первых INSERT
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional
+    public void syncTaskSequence() throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+        //pooled-оптимизатор после nextval = v выдаёт id до v включительно, следующая пачка начнётся с v + 1;
+        //setval(max + 1) повторяет прежний ручной шаг из README
+        Long value = jdbcTemplate.queryForObject("SELECT CASE WHEN s.last_value <= m.max_id "
+                + "THEN setval('task_seq', m.max_id + 1) END "
+                + "FROM task_seq s, (SELECT GREATEST((SELECT MAX(id) FROM task), "
+                + "(SELECT MAX(id) FROM task_archive)) AS max_id) m", Long.class);
+        if (value != null) {
+            log.info("Moved task_seq past existing task ids to {}", value);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.SpringToDo.repository;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.model.TaskArchive;
+import com.example.SpringToDo.model.TaskStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskArchiveRepository extends JpaRepository<TaskArchive, Integer> {
+    String SELECT_DTO = "select new com.example.SpringToDo.dto.TaskDTO(a.id, a.title, a.description, a.dueDate, a.status, a.version) " +
+            "from TaskArchive a ";
+
+    @Query(SELECT_DTO + "order by a.id")
+    List<TaskDTO> findAllDtos();
+
+    @Query(SELECT_DTO + "where a.id = :id")
+    Optional<TaskDTO> findDtoById(@Param("id") int id);
+
+    @Query(SELECT_DTO + "where a.status = :status order by a.id")
+    List<TaskDTO> findDtosByStatus(@Param("status") TaskStatus status);
+
+    //копия строк task одним INSERT ... SELECT, без загрузки сущностей; строки должны быть заблокированы вызывающим
+    @Modifying
+    @Query(value = "insert into task_archive (id, title, description, due_date, status, version, archived_at) " +
+            "select id, title, description, due_date, status, version, :archivedAt from task where id in (:ids)",
+            nativeQuery = true)
+    int copyFromTasks(@Param("ids") List<Integer> ids, @Param("archivedAt") Instant archivedAt);
+}
@@ -1,9 +1,165 @@
 package com.example.SpringToDo.repository;
 
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskStatsEntryDTO;
 import com.example.SpringToDo.model.Task;
+import com.example.SpringToDo.model.TaskStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Integer> {
+    //сколько строк драйвер забирает за один round trip при выгрузке курсором
+    String EXPORT_FETCH_SIZE = "500";
+
+    //чтение сразу в TaskDTO: без управляемых сущностей, снимков для dirty checking и TaskMapper
+    String SELECT_DTO = "select new com.example.SpringToDo.dto.TaskDTO(t.id, t.title, t.description, t.dueDate, t.status, t.version) " +
+            "from Task t ";
+
+    @Query(SELECT_DTO + "order by t.id")
+    List<TaskDTO> findAllDtos();
+
+    @Query("select t.version from Task t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") int id);
+
+    @Query(SELECT_DTO + "where t.id = :id")
+    Optional<TaskDTO> findDtoById(@Param("id") int id);
+
+    @Query(SELECT_DTO + "where t.id in :ids order by t.id")
+    List<TaskDTO> findDtosByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query(SELECT_DTO + "where t.status = :status order by t.id")
+    List<TaskDTO> findDtosByStatus(@Param("status") TaskStatus status);
+
+    //задачи без срока — в конце, как в TaskSortedIndex.BY_DUE_DATE
+    @Query(SELECT_DTO + "order by t.dueDate nulls last, t.id")
+    List<TaskDTO> findDtosOrderByDueDate();
+
+    //срок в [from, before), любая граница и статус могут быть null
+    @Query(SELECT_DTO + "where t.dueDate is not null " +
+            "and (:status is null or t.status = :status) " +
+            "and (:from is null or t.dueDate >= :from) " +
+            "and (:before is null or t.dueDate < :before) " +
+            "order by t.dueDate, t.id")
+    List<TaskDTO> findDtosDueBetween(@Param("status") TaskStatus status,
+                                     @Param("from") LocalDate from,
+                                     @Param("before") LocalDate before,
+                                     Pageable pageable);
+
+    @Query("select new com.example.SpringToDo.dto.TaskStatsEntryDTO(t.id, t.status, t.dueDate, t.version) from Task t")
+    List<TaskStatsEntryDTO> findStatsEntries();
+
+    //обновление одним UPDATE без предварительного SELECT; 0 строк — задачи нет или версия устарела.
+    //completedAt как в Task.setStatus: now при переходе в DONE, прежнее значение у выполненной, null у остальных;
+    //t.status справа от = — значение до UPDATE
+    String DONE_STATUS = "com.example.SpringToDo.model.TaskStatus.DONE";
+    String SET_COMPLETED_AT = "t.completedAt = case when :status = " + DONE_STATUS + " and t.status = " + DONE_STATUS +
+            " then t.completedAt when :status = " + DONE_STATUS + " then :now else null end";
+
+    @Modifying
+    @Query("update Task t set t.title = :title, t.description = :description, t.dueDate = :dueDate, " +
+            "t.status = :status, " + SET_COMPLETED_AT + ", t.version = t.version + 1 " +
+            "where t.id = :id and t.version = :version")
+    int updateIfVersionMatches(@Param("id") int id,
+                               @Param("version") long version,
+                               @Param("title") String title,
+                               @Param("description") String description,
+                               @Param("dueDate") LocalDate dueDate,
+                               @Param("status") TaskStatus status,
+                               @Param("now") Instant now);
+
+    @Modifying
+    @Query("update Task t set t.title = :title, t.description = :description, t.dueDate = :dueDate, " +
+            "t.status = :status, " + SET_COMPLETED_AT + ", t.version = t.version + 1 where t.id = :id")
+    int updateLatest(@Param("id") int id,
+                     @Param("title") String title,
+                     @Param("description") String description,
+                     @Param("dueDate") LocalDate dueDate,
+                     @Param("status") TaskStatus status,
+                     @Param("now") Instant now);
+
+    //keyset-пагинация: условие по (ключ сортировки, id) вместо offset, размер страницы задаёт Pageable
+
+    @Query(SELECT_DTO + "where t.id > :afterId order by t.id")
+    List<TaskDTO> findKeysetPage(@Param("afterId") int afterId, Pageable pageable);
+
+    @Query(SELECT_DTO + "where t.status = :status and t.id > :afterId order by t.id")
+    List<TaskDTO> findKeysetPageByStatus(@Param("status") TaskStatus status,
+                                         @Param("afterId") int afterId,
+                                         Pageable pageable);
+
+    //по сроку: задачи без срока идут последними (nulls last) по id, их отдают запросы ...WithoutDueDate;
+    //t.dueDate >= :dueDate — граница диапазона для индекса, одного "или" планировщику для неё мало
+
+    @Query(SELECT_DTO + "order by t.dueDate nulls last, t.id")
+    List<TaskDTO> findKeysetPageOrderByDueDate(Pageable pageable);
+
+    @Query(SELECT_DTO + "where t.dueDate >= :dueDate and (t.dueDate > :dueDate or t.id > :afterId) " +
+            "order by t.dueDate, t.id")
+    List<TaskDTO> findKeysetPageAfterDueDate(@Param("dueDate") LocalDate dueDate,
+                                             @Param("afterId") int afterId,
+                                             Pageable pageable);
+
+    @Query(SELECT_DTO + "where t.dueDate is null and t.id > :afterId order by t.id")
+    List<TaskDTO> findKeysetPageWithoutDueDate(@Param("afterId") int afterId, Pageable pageable);
+
+    @Query(SELECT_DTO + "where t.status = :status order by t.dueDate nulls last, t.id")
+    List<TaskDTO> findKeysetPageByStatusOrderByDueDate(@Param("status") TaskStatus status, Pageable pageable);
+
+    @Query(SELECT_DTO + "where t.status = :status " +
+            "and t.dueDate >= :dueDate and (t.dueDate > :dueDate or t.id > :afterId) " +
+            "order by t.dueDate, t.id")
+    List<TaskDTO> findKeysetPageByStatusAfterDueDate(@Param("status") TaskStatus status,
+                                                     @Param("dueDate") LocalDate dueDate,
+                                                     @Param("afterId") int afterId,
+                                                     Pageable pageable);
+
+    @Query(SELECT_DTO + "where t.status = :status and t.dueDate is null and t.id > :afterId order by t.id")
+    List<TaskDTO> findKeysetPageByStatusWithoutDueDate(@Param("status") TaskStatus status,
+                                                       @Param("afterId") int afterId,
+                                                       Pageable pageable);
+
+    //архивация: DONE-задачи, выполненные до completedBefore (без времени выполнения — со сроком до dueBefore),
+    //не больше limit; строки, занятые другими транзакциями, пропускаются до следующего прохода, а выбранные
+    //остаются заблокированными до конца транзакции переноса
+    @Query(value = "select id from task where status = 'DONE' " +
+            "and (completed_at < :completedBefore or (completed_at is null and due_date < :dueBefore)) " +
+            "order by id limit :limit for update skip locked", nativeQuery = true)
+    List<Integer> lockDoneIdsCompletedBefore(@Param("completedBefore") Instant completedBefore,
+                                             @Param("dueBefore") LocalDate dueBefore,
+                                             @Param("limit") int limit);
+
+    //возврат из архива с прежним id: последовательность task_seq этот id уже выдала, конфликта с новыми задачами нет
+    @Modifying
+    @Query(value = "insert into task (id, title, description, due_date, status, version, completed_at) " +
+            "values (:id, :title, :description, :dueDate, :status, :version, :completedAt)", nativeQuery = true)
+    int insertWithId(@Param("id") int id,
+                     @Param("title") String title,
+                     @Param("description") String description,
+                     @Param("dueDate") LocalDate dueDate,
+                     @Param("status") String status,
+                     @Param("version") long version,
+                     @Param("completedAt") Instant completedAt);
+
+    //выгрузка всей таблицы курсором: вызывать только внутри транзакции и закрывать Stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Task t order by t.id")
+    Stream<Task> streamAllByOrderById();
 }
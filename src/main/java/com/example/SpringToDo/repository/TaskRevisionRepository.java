@@ -0,0 +1,15 @@
+package com.example.SpringToDo.repository;
+
+import com.example.SpringToDo.model.TaskRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskRevisionRepository extends JpaRepository<TaskRevision, Integer> {
+
+    @Modifying
+    @Query("update TaskRevision r set r.revision = r.revision + 1 where r.id = " + TaskRevision.ID)
+    int increment();
+}
@@ -0,0 +1,233 @@
+package com.example.SpringToDo.search;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Инвертированный индекс в памяти для баз без полнотекстового поиска (H2, тесты).
+ * Строится при старте и обновляется по {@link TaskChangedEvent} после коммита; релевантность — сумма tf·idf слов запроса.
+ */
+@RequiredArgsConstructor
+public class InMemoryTaskSearch implements TaskSearch {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TOMBSTONES = 10_000;
+
+    private final TaskRepository repository;
+
+    private final Map<Integer, TaskDTO> documents = new HashMap<>();
+    //слово -> (id задачи -> сколько раз слово встречается в задаче)
+    private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+    //id удалённой задачи -> версия удалённой строки: запоздавшее UPDATE той же или более старой версии не вернёт
+    //задачу в индекс. Запаздывание событий — доли секунды, поэтому хранятся только последние MAX_TOMBSTONES удалений
+    private final Map<Integer, Long> deletedVersions = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Long> eldest) {
+            return size() > MAX_TOMBSTONES;
+        }
+    };
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    //события, пришедшие во время чтения задач из базы; применяются к прочитанному перед заменой индекса
+    private List<TaskChangedEvent> pendingDuringLoad;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringLoad = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<TaskDTO> tasks;
+        try {
+            tasks = repository.findAllDtos();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            deletedVersions.clear();
+            tasks.forEach(this::put);
+            //часть событий уже видна в прочитанном: повтор той же версии ничего не меняет
+            pendingDuringLoad.forEach(this::apply);
+            pendingDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(event);
+            if (pendingDuringLoad != null) {
+                pendingDuringLoad.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TaskDTO> search(String query, int offset, int limit) {
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Map<Integer, Integer>> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Integer, Integer> list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            //перебираем самый короткий список, остальные только проверяем
+            lists.sort(Comparator.comparingInt(Map::size));
+
+            Comparator<Hit> order = Comparator.comparingDouble(Hit::score).reversed().thenComparingInt(Hit::id);
+            int keep = offset + limit;
+            PriorityQueue<Hit> top = new PriorityQueue<>(keep + 1, order.reversed());
+            for (Integer id : lists.get(0).keySet()) {
+                double score = 0;
+                for (Map<Integer, Integer> list : lists) {
+                    Integer tf = list.get(id);
+                    if (tf == null) {
+                        score = -1;
+                        break;
+                    }
+                    score += tf * Math.log(1 + (double) documents.size() / list.size());
+                }
+                if (score >= 0) {
+                    top.add(new Hit(id, score));
+                    if (top.size() > keep) {
+                        top.poll();
+                    }
+                }
+            }
+
+            List<Hit> ranked = new ArrayList<>(top);
+            ranked.sort(order);
+            List<TaskDTO> result = new ArrayList<>(limit);
+            for (int i = offset; i < ranked.size(); i++) {
+                result.add(documents.get(ranked.get(i).id()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text != null) {
+            for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private void apply(TaskChangedEvent event) {
+        if (isStale(event.getId(), event.getVersion())) {
+            return;
+        }
+        if (event.getType() == TaskChangedEvent.Type.DELETED || event.getTask() == null) {
+            TaskDTO previous = documents.get(event.getId());
+            Long version = event.getVersion() != null ? event.getVersion()
+                    : previous != null ? previous.getVersion() : null;
+            remove(event.getId());
+            if (version != null) {
+                deletedVersions.merge(event.getId(), version, Math::max);
+            }
+        } else {
+            //восстановление из архива приходит с версией выше удалённой
+            deletedVersions.remove(event.getId());
+            remove(event.getId());
+            put(event.getTask());
+        }
+    }
+
+    //события разных транзакций приходят в произвольном порядке: более старая версия не затирает новую
+    //и не возвращает удалённую задачу, а запоздавшее удаление не снимает восстановленную из архива
+    private boolean isStale(int id, Long version) {
+        if (version == null) {
+            return false;
+        }
+        TaskDTO current = documents.get(id);
+        if (current != null && current.getVersion() != null && current.getVersion() > version) {
+            return true;
+        }
+        Long deleted = deletedVersions.get(id);
+        return deleted != null && deleted >= version;
+    }
+
+    private void put(TaskDTO task) {
+        documents.put(task.getId(), task);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : TOKEN_SEPARATOR.split(text(task).toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+        }
+        frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(task.getId(), tf));
+    }
+
+    private void remove(int id) {
+        TaskDTO previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : tokenize(text(previous))) {
+            Map<Integer, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static String text(TaskDTO task) {
+        return (task.getTitle() != null ? task.getTitle() : "") + " "
+                + (task.getDescription() != null ? task.getDescription() : "");
+    }
+
+    private record Hit(int id, double score) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.SpringToDo.search;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.model.TaskStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Date;
+import java.util.List;
+
+/**
+ * Поиск средствами PostgreSQL: генерируемая колонка search_vector (tsvector) с GIN-индексом.
+ * Колонка вычисляется самой базой при INSERT/UPDATE, поэтому синхронизация с задачами не нужна.
+ * Колонку и индекс создаёт db/postgresql/task-search-vector.sql: добавление колонки переписывает таблицу,
+ * поэтому при старте приложения оно не выполняется.
+ */
+@RequiredArgsConstructor
+public class PostgresTaskSearch implements TaskSearch {
+    private static final RowMapper<TaskDTO> ROW_MAPPER = (rs, rowNum) -> {
+        Date dueDate = rs.getDate("due_date");
+        String status = rs.getString("status");
+        return new TaskDTO(
+                rs.getInt("id"),
+                rs.getString("title"),
+                rs.getString("description"),
+                dueDate != null ? dueDate.toLocalDate() : null,
+                status != null ? TaskStatus.valueOf(status) : null,
+                rs.getLong("version"));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String textSearchConfig;
+
+    @Override
+    public List<TaskDTO> search(String query, int offset, int limit) {
+        return jdbcTemplate.query(
+                "SELECT t.id, t.title, t.description, t.due_date, t.status, t.version "
+                        + "FROM task t, websearch_to_tsquery(CAST(? AS regconfig), ?) q "
+                        + "WHERE t.search_vector @@ q "
+                        + "ORDER BY ts_rank(t.search_vector, q) DESC, t.id "
+                        + "LIMIT ? OFFSET ?",
+                ROW_MAPPER, textSearchConfig, query, limit, offset);
+    }
+}
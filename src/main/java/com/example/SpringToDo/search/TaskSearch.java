@@ -0,0 +1,14 @@
+package com.example.SpringToDo.search;
+
+import com.example.SpringToDo.dto.TaskDTO;
+
+import java.util.List;
+
+/**
+ * Полнотекстовый поиск по заголовку и описанию задачи.
+ * Все слова запроса должны встретиться в задаче; результаты упорядочены по убыванию релевантности, затем по id.
+ */
+public interface TaskSearch {
+
+    List<TaskDTO> search(String query, int offset, int limit);
+}
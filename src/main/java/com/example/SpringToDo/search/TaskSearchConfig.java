@@ -0,0 +1,37 @@
+package com.example.SpringToDo.search;
+
+import com.example.SpringToDo.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+@Slf4j
+@Configuration
+public class TaskSearchConfig {
+
+    //на PostgreSQL с колонкой search_vector — tsvector + GIN, иначе — индекс в памяти
+    @Bean
+    public TaskSearch taskSearch(DataSource dataSource, JdbcTemplate jdbcTemplate, TaskRepository repository,
+                                 @Value("${todo.search.text-search-config:simple}") String textSearchConfig)
+            throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if ("PostgreSQL".equals(product)) {
+            Boolean migrated = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM information_schema.columns "
+                    + "WHERE table_schema = current_schema() AND table_name = 'task' "
+                    + "AND column_name = 'search_vector')", Boolean.class);
+            if (Boolean.TRUE.equals(migrated)) {
+                return new PostgresTaskSearch(jdbcTemplate, textSearchConfig);
+            }
+            log.warn("Column task.search_vector is missing, run db/postgresql/task-search-vector.sql; "
+                    + "using in-memory search until then");
+        }
+        return new InMemoryTaskSearch(repository);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.SpringToDo.service;
+
+/**
+ * Данные вместе с ревизией набора задач, прочитанной раньше них из того же источника (индекс в памяти или
+ * та же транзакция в базе): ETag по ревизии никогда не новее данных. value == null, если клиентская копия
+ * с этой ревизией актуальна и данные не читались.
+ */
+public record Revisioned<T>(String revision, T value) {
+}
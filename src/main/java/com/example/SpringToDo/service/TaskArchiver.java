@@ -0,0 +1,73 @@
+package com.example.SpringToDo.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Архивация выполненных задач (todo.archive.enabled): по расписанию переносит DONE-задачи, выполненные
+ * больше older-than-days дней назад, из task в task_archive. Каждая порция до batch-size задач — отдельная короткая
+ * транзакция {@link TaskBatchProcessor#archiveChunk}, поэтому блокировки не держатся дольше одной порции.
+ * Возраст считается от completed_at; у задач, выполненных до появления колонки, — по сроку.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.archive.enabled", havingValue = "true")
+public class TaskArchiver {
+    private final TaskBatchProcessor batchProcessor;
+    private final CacheManager cacheManager;
+    private final Clock clock;
+    private final int olderThanDays;
+    private final int batchSize;
+
+    public TaskArchiver(TaskBatchProcessor batchProcessor,
+                        CacheManager cacheManager,
+                        @Value("${todo.archive.older-than-days:30}") int olderThanDays,
+                        @Value("${todo.archive.batch-size:500}") int batchSize) {
+        this(batchProcessor, cacheManager, Clock.systemDefaultZone(), olderThanDays, batchSize);
+    }
+
+    TaskArchiver(TaskBatchProcessor batchProcessor, CacheManager cacheManager, Clock clock,
+                 int olderThanDays, int batchSize) {
+        if (olderThanDays < 0 || batchSize < 1) {
+            throw new IllegalArgumentException("Archive needs older-than-days >= 0 and batch-size >= 1");
+        }
+        this.batchProcessor = batchProcessor;
+        this.cacheManager = cacheManager;
+        this.clock = clock;
+        this.olderThanDays = olderThanDays;
+        this.batchSize = batchSize;
+    }
+
+    //возвращает число перенесённых задач; неполная порция — всё доступное перенесено
+    @Scheduled(fixedDelayString = "${todo.archive.interval-ms:3600000}",
+            initialDelayString = "${todo.archive.interval-ms:3600000}")
+    public int archiveDoneTasks() {
+        Instant completedBefore = clock.instant().minus(Duration.ofDays(olderThanDays));
+        LocalDate dueBefore = LocalDate.now(clock).minusDays(olderThanDays);
+        Cache cache = cacheManager.getCache(TaskServiceImpl.TASKS_CACHE);
+        int archived = 0;
+        List<Integer> ids;
+        do {
+            ids = batchProcessor.archiveChunk(completedBefore, dueBefore, batchSize);
+            if (cache != null) {
+                ids.forEach(cache::evict);
+            }
+            archived += ids.size();
+        } while (ids.size() == batchSize);
+        if (archived > 0) {
+            log.info("Archived {} tasks done before {}", archived, completedBefore);
+        }
+        return archived;
+    }
+}
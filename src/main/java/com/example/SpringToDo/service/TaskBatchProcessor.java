@@ -0,0 +1,153 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
+import com.example.SpringToDo.dto.TaskBatchResultDTO;
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.exception.TaskNotFoundException;
+import com.example.SpringToDo.mapper.TaskMapper;
+import com.example.SpringToDo.model.Task;
+import com.example.SpringToDo.repository.TaskArchiveRepository;
+import com.example.SpringToDo.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Применяет один чанк пакетных операций или архивации в отдельной транзакции.
+ * Вынесен из {@link TaskServiceImpl}, чтобы транзакция чанка шла через прокси.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskBatchProcessor {
+    private final TaskRepository repository;
+    private final TaskArchiveRepository archiveRepository;
+    private final TaskMapper taskMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<TaskBatchResultDTO> processChunk(List<TaskBatchOperationDTO> chunk, int offset) {
+        //задачи для UPDATE и DELETE поднимаем одним запросом на весь чанк
+        List<Integer> ids = chunk.stream()
+                .filter(op -> op.getOp() == TaskBatchOperationDTO.Operation.UPDATE
+                        || op.getOp() == TaskBatchOperationDTO.Operation.DELETE)
+                .map(TaskBatchOperationDTO::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Integer, Task> existing = ids.isEmpty()
+                ? new HashMap<>()
+                : repository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<TaskBatchResultDTO> results = new ArrayList<>(chunk.size());
+        List<Task> created = new ArrayList<>();
+        List<TaskBatchResultDTO> createdResults = new ArrayList<>();
+        List<Integer> deletedIds = new ArrayList<>();
+        //события UPDATE и DELETE в порядке операций; DTO собираются после flush, когда версия уже увеличена
+        List<Supplier<TaskChangedEvent>> events = new ArrayList<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            TaskBatchOperationDTO operation = chunk.get(i);
+            int index = offset + i;
+            if (operation.getOp() == null) {
+                results.add(TaskBatchResultDTO.failure(index, null, operation.getId(), "Operation is required"));
+                continue;
+            }
+            try {
+                switch (operation.getOp()) {
+                    case CREATE -> {
+                        Task task = taskMapper.toEntity(operation);
+                        task.setId(0);
+                        TaskServiceImpl.validateTask(task);
+                        TaskBatchResultDTO result = TaskBatchResultDTO.success(index, operation.getOp(), null);
+                        created.add(task);
+                        createdResults.add(result);
+                        results.add(result);
+                    }
+                    case UPDATE -> {
+                        Task task = findExisting(existing, operation.getId());
+                        Task changes = taskMapper.toEntity(operation);
+                        TaskServiceImpl.validateTask(changes);
+                        //управляемая сущность: UPDATE уйдёт батчем при flush
+                        task.setTitle(changes.getTitle());
+                        task.setDescription(changes.getDescription());
+                        task.setDueDate(changes.getDueDate());
+                        task.setStatus(changes.getStatus());
+                        results.add(TaskBatchResultDTO.success(index, operation.getOp(), task.getId()));
+                        events.add(() -> new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, task.getId(), taskMapper.toDto(task)));
+                    }
+                    case DELETE -> {
+                        Task task = findExisting(existing, operation.getId());
+                        existing.remove(task.getId());
+                        deletedIds.add(task.getId());
+                        results.add(TaskBatchResultDTO.success(index, operation.getOp(), task.getId()));
+                        events.add(() -> new TaskChangedEvent(TaskChangedEvent.Type.DELETED, task.getId(), null, task.getVersion()));
+                    }
+                }
+            } catch (IllegalArgumentException | TaskNotFoundException e) {
+                results.add(TaskBatchResultDTO.failure(index, operation.getOp(), operation.getId(), e.getMessage()));
+            }
+        }
+
+        List<Task> saved = repository.saveAll(created);
+        //UPDATE изменённых задач уходят здесь: Hibernate увеличивает @Version, и события несут версию из базы
+        repository.flush();
+        events.forEach(event -> eventPublisher.publishEvent(event.get()));
+        for (int i = 0; i < saved.size(); i++) {
+            Task task = saved.get(i);
+            createdResults.get(i).setId(task.getId());
+            eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, task.getId(), taskMapper.toDto(task)));
+        }
+        if (!deletedIds.isEmpty()) {
+            repository.deleteAllByIdInBatch(deletedIds);
+        }
+        return results;
+    }
+
+    /**
+     * Переносит в task_archive до size DONE-задач, выполненных до completedBefore (выполненные до появления
+     * completed_at — со сроком до dueBefore), и возвращает их id.
+     * Строки блокируются только на время этой короткой транзакции; для подписчиков задачи удалены.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Integer> archiveChunk(Instant completedBefore, LocalDate dueBefore, int size) {
+        List<Integer> ids = repository.lockDoneIdsCompletedBefore(completedBefore, dueBefore, size);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        //строки заблокированы до конца транзакции: прочитанные версии и есть версии удаляемых строк
+        List<TaskDTO> archived = repository.findDtosByIdIn(ids);
+        archiveRepository.copyFromTasks(ids, Instant.now());
+        repository.deleteAllByIdInBatch(ids);
+        for (TaskDTO task : archived) {
+            eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, task.getId(), null,
+                    task.getVersion()));
+        }
+        return ids;
+    }
+
+    private Task findExisting(Map<Integer, Task> existing, Integer id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Id is required");
+        }
+        Task task = existing.get(id);
+        if (task == null) {
+            throw new TaskNotFoundException(id);
+        }
+        return task;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.model.TaskStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор keyset-пагинации: (ключ сортировки, id) последней отданной задачи.
+ * Клиенту уходит строкой в base64url, внутренний формат — "SORT|ключ|id".
+ * У задачи без срока ключ DUE_DATE пустой: такие задачи идут после всех задач со сроком.
+ */
+@Getter
+@RequiredArgsConstructor
+public class TaskCursor {
+    private static final String SEPARATOR = "|";
+
+    private final TaskSort sort;
+    private final LocalDate dueDate;
+    private final TaskStatus status;
+    private final int id;
+
+    public static TaskCursor of(TaskSort sort, TaskDTO last) {
+        return new TaskCursor(sort, last.getDueDate(), last.getStatus(), last.getId());
+    }
+
+    public String encode() {
+        String key = switch (sort) {
+            case DUE_DATE -> dueDate == null ? "" : dueDate.toString();
+            case STATUS -> status.name();
+            case ID -> "";
+        };
+        String raw = sort.name() + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String value, TaskSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || TaskSort.valueOf(parts[0]) != expectedSort) {
+                throw new IllegalArgumentException();
+            }
+            int id = Integer.parseInt(parts[2]);
+            return switch (expectedSort) {
+                case DUE_DATE -> new TaskCursor(expectedSort,
+                        parts[1].isEmpty() ? null : LocalDate.parse(parts[1]), null, id);
+                case STATUS -> new TaskCursor(expectedSort, null, TaskStatus.valueOf(parts[1]), id);
+                case ID -> new TaskCursor(expectedSort, null, null, id);
+            };
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
+import com.example.SpringToDo.dto.TaskBatchResultDTO;
+import com.example.SpringToDo.dto.TaskCreateDTO;
+import com.example.SpringToDo.dto.TaskIngestStatusDTO;
+import com.example.SpringToDo.exception.TaskIngestRejectedException;
+import com.example.SpringToDo.mapper.TaskMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Асинхронное создание задач (todo.ingest.enabled): POST /api/v1/tasks проверяет задачу, кладёт её в ограниченную
+ * очередь и сразу отвечает 202 с trackingId. Один поток-писатель забирает задачи группами до max-batch-size штук
+ * или max-delay-ms ожидания и сохраняет каждую группу одной транзакцией через {@link TaskBatchProcessor}.
+ * Если транзакция группы откатилась, группа делится пополам и пишется заново, пока FAILED не останется только
+ * у задач, которые база не принимает.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.ingest.enabled", havingValue = "true")
+public class TaskIngestQueue {
+    private final TaskBatchProcessor batchProcessor;
+    private final TaskMapper taskMapper;
+    private final int capacity;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+
+    private final BlockingQueue<Pending> queue;
+    //статусы живут ограниченное время и в ограниченном числе: клиент должен успеть их забрать
+    private final Cache<String, TaskIngestStatusDTO> statuses;
+    private volatile boolean running;
+    private Thread writer;
+
+    public TaskIngestQueue(TaskBatchProcessor batchProcessor,
+                           TaskMapper taskMapper,
+                           @Value("${todo.ingest.capacity:10000}") int capacity,
+                           @Value("${todo.ingest.max-batch-size:500}") int maxBatchSize,
+                           @Value("${todo.ingest.max-delay-ms:50}") long maxDelayMs,
+                           @Value("${todo.ingest.status-ttl-minutes:60}") long statusTtlMinutes,
+                           @Value("${todo.ingest.status-max-size:100000}") long statusMaxSize) {
+        this.batchProcessor = batchProcessor;
+        this.taskMapper = taskMapper;
+        this.capacity = capacity;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(statusTtlMinutes))
+                .maximumSize(statusMaxSize)
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("task-ingest-writer").daemon().start(this::run);
+    }
+
+    //при остановке приложения дописывает то, что уже принято в очередь
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    public TaskIngestStatusDTO enqueue(TaskCreateDTO dto) {
+        TaskServiceImpl.validateTask(taskMapper.toEntity(dto));
+        String trackingId = UUID.randomUUID().toString();
+        TaskIngestStatusDTO status = new TaskIngestStatusDTO(trackingId, TaskIngestStatusDTO.State.QUEUED, null, null);
+        statuses.put(trackingId, status);
+        if (!running || !queue.offer(new Pending(trackingId, dto))) {
+            statuses.invalidate(trackingId);
+            throw new TaskIngestRejectedException(capacity);
+        }
+        return status;
+    }
+
+    public Optional<TaskIngestStatusDTO> getStatus(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<Pending> group = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                //добираем группу, пока не наберётся max-batch-size или не выйдет max-delay-ms от первой задачи
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (group.size() < maxBatchSize) {
+                    queue.drainTo(group, maxBatchSize - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (group.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                write(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Task ingest writer failed", e);
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> group) {
+        List<TaskBatchOperationDTO> operations = new ArrayList<>(group.size());
+        for (Pending pending : group) {
+            TaskCreateDTO dto = pending.dto();
+            operations.add(new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.CREATE, null,
+                    dto.getTitle(), dto.getDescription(), dto.getDueDate(), dto.getStatus()));
+        }
+        List<TaskBatchResultDTO> results;
+        try {
+            results = batchProcessor.processChunk(operations, 0);
+        } catch (RuntimeException e) {
+            //транзакция группы откатилась целиком; без базы повторы бессмысленны, иначе ищем виноватые строки
+            if (group.size() == 1 || e instanceof TransientDataAccessException
+                    || e instanceof DataAccessResourceFailureException) {
+                for (Pending pending : group) {
+                    statuses.put(pending.trackingId(), new TaskIngestStatusDTO(pending.trackingId(),
+                            TaskIngestStatusDTO.State.FAILED, null, "Rolled back: " + e.getMessage()));
+                }
+                return;
+            }
+            log.debug("Task ingest group of {} rolled back, retrying in halves", group.size(), e);
+            int half = group.size() / 2;
+            write(group.subList(0, half));
+            write(group.subList(half, group.size()));
+            return;
+        }
+        for (TaskBatchResultDTO result : results) {
+            String trackingId = group.get(result.getIndex()).trackingId();
+            statuses.put(trackingId, result.isSuccess()
+                    ? new TaskIngestStatusDTO(trackingId, TaskIngestStatusDTO.State.CREATED, result.getId(), null)
+                    : new TaskIngestStatusDTO(trackingId, TaskIngestStatusDTO.State.FAILED, null, result.getError()));
+        }
+    }
+
+    private record Pending(String trackingId, TaskCreateDTO dto) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.model.TaskRevision;
+import com.example.SpringToDo.repository.TaskRevisionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Поднимает маркер {@link TaskRevision} один раз на транзакцию, изменившую задачи, прямо перед её коммитом:
+ * новая ревизия становится видна вместе с самими изменениями, а строка-маркер блокируется только на время коммита.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskRevisionTracker {
+    private final TaskRevisionRepository revisionRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!revisionRepository.existsById(TaskRevision.ID)) {
+            try {
+                revisionRepository.save(new TaskRevision(TaskRevision.ID, 0));
+            } catch (DataIntegrityViolationException e) {
+                //строку уже создал другой экземпляр приложения
+            }
+        }
+    }
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (revisionRepository.increment() == 0) {
+                    revisionRepository.save(new TaskRevision(TaskRevision.ID, 1));
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(TaskRevisionTracker.this);
+            }
+        });
+    }
+}
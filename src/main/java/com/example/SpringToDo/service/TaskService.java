@@ -1,19 +1,62 @@
 package com.example.SpringToDo.service;
 
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
+import com.example.SpringToDo.dto.TaskBatchResultDTO;
 import com.example.SpringToDo.dto.TaskCreateDTO;
 import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskPageDTO;
+import com.example.SpringToDo.dto.TaskPatchDTO;
+import com.example.SpringToDo.dto.TaskStatsDTO;
 import com.example.SpringToDo.model.TaskStatus;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public interface TaskService {
     TaskDTO createTask(TaskCreateDTO dto);
     TaskDTO updateTask(int id, TaskDTO dto);
+    TaskDTO patchTask(int id, TaskPatchDTO patch);
     void deleteTask(int id);
 
+    //операции применяются чанками, каждый чанк — своя транзакция; результат по каждой операции
+    List<TaskBatchResultDTO> applyBatch(List<TaskBatchOperationDTO> operations);
+
     List<TaskDTO> getAllTasks();
     TaskDTO getTaskById(int id);
     List<TaskDTO> filterTasksByStatus(TaskStatus status);
     List<TaskDTO> getAllTasksSortedByDueDate();
     List<TaskDTO> getAllTasksSortedByStatus();
+
+    //активные и архивные задачи (todo.archive) в порядке sort; со статусом — только этого статуса, по id
+    List<TaskDTO> getAllTasksIncludingArchived(TaskStatus status, TaskSort sort);
+    TaskDTO getArchivedTaskById(int id);
+
+    //возвращает задачу из архива с прежним id; status, если задан, заменяет сохранённый
+    TaskDTO restoreTask(int id, TaskStatus status);
+
+    //задачи со сроком в [from, before) по возрастанию срока, первые limit; статус и границы необязательны
+    List<TaskDTO> getTasksDueBetween(TaskStatus status, LocalDate from, LocalDate before, int limit);
+
+    //маркер изменений таблицы задач: меняется при любой записи, читается без чтения задач
+    long getTasksRevision();
+
+    TaskPageDTO getTasksPage(TaskStatus status, TaskSort sort, String after, int limit);
+
+    //списки для GET /api/v1/tasks с ревизией их источника; notModified получает ревизию до чтения списка
+    //и, вернув true, отменяет чтение (value == null)
+    Revisioned<List<TaskDTO>> getTaskList(TaskStatus status, TaskSort sort, boolean includeArchived,
+                                          Predicate<String> notModified);
+    Revisioned<TaskPageDTO> getTasksPage(TaskStatus status, TaskSort sort, String after, int limit,
+                                         Predicate<String> notModified);
+
+    //счётчики по статусам и срокам без чтения таблицы задач
+    TaskStatsDTO getTaskStats();
+
+    //полнотекстовый поиск по заголовку и описанию, от более релевантных к менее
+    TaskPageDTO searchTasks(String query, String after, int limit);
+
+    //отдаёт задачи в consumer по одной, не собирая список в памяти
+    void exportTasks(Consumer<TaskDTO> consumer);
 }
@@ -1,109 +1,490 @@
 package com.example.SpringToDo.service;
 
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
+import com.example.SpringToDo.dto.TaskBatchResultDTO;
 import com.example.SpringToDo.dto.TaskCreateDTO;
 import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskPageDTO;
+import com.example.SpringToDo.dto.TaskPatchDTO;
+import com.example.SpringToDo.dto.TaskStatsDTO;
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.exception.TaskConflictException;
 import com.example.SpringToDo.exception.TaskNotFoundException;
 import com.example.SpringToDo.mapper.TaskMapper;
 import com.example.SpringToDo.model.Task;
+import com.example.SpringToDo.model.TaskRevision;
 import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskArchiveRepository;
 import com.example.SpringToDo.repository.TaskRepository;
-import jakarta.transaction.Transactional;
+import com.example.SpringToDo.repository.TaskRevisionRepository;
+import com.example.SpringToDo.search.TaskSearch;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
+//латентность каждого публичного метода: task.service{class, method} с перцентилями из application.yaml
+@Timed(TaskServiceImpl.TIMER_NAME)
 public class TaskServiceImpl implements TaskService {
+    public static final String TASKS_CACHE = "tasks";
+    public static final String TIMER_NAME = "task.service";
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 10_000;
+    private static final String SEARCH_CURSOR_PREFIX = "SEARCH|";
+
     private final TaskRepository repository;
     private final TaskMapper taskMapper;
+    private final TaskBatchProcessor batchProcessor;
+    private final TaskRevisionRepository revisionRepository;
+    private final TaskArchiveRepository archiveRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskSearch taskSearch;
+    private final TaskStatsCounter statsCounter;
+    //todo.index.enabled: отсортированные и отфильтрованные списки из памяти
+    private final Optional<TaskSortedIndex> sortedIndex;
+
+    @Value("${todo.batch.chunk-size:500}")
+    private int batchChunkSize = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     public TaskDTO createTask(TaskCreateDTO dto) {
         Task task = taskMapper.toEntity(dto);
         validateTask(task);
         Task saved = repository.save(task);
-        return taskMapper.toDto(saved);
+        TaskDTO created = taskMapper.toDto(saved);
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, created.getId(), created));
+        return created;
     }
 
     @Override
+    @CacheEvict(cacheNames = TASKS_CACHE, key = "#id")
     public TaskDTO updateTask(int id, TaskDTO dto) {
         Task task = taskMapper.toEntity(dto);
         task.setId(id);
         validateTask(task);
-        if (!repository.existsById(task.getId())) {
-            throw new TaskNotFoundException(id);
+
+        TaskDTO updated;
+        if (dto.getVersion() != null) {
+            //один UPDATE с проверкой версии; итоговое состояние известно без повторного чтения
+            int rows = repository.updateIfVersionMatches(id, dto.getVersion(),
+                    task.getTitle(), task.getDescription(), task.getDueDate(), task.getStatus(), Instant.now());
+            if (rows == 0) {
+                throw missingOrConflict(id, dto.getVersion());
+            }
+            updated = new TaskDTO(id, task.getTitle(), task.getDescription(), task.getDueDate(), task.getStatus(),
+                    dto.getVersion() + 1);
+        } else {
+            //клиент без версии перезаписывает последнее состояние; новую версию узнаём чтением
+            int rows = repository.updateLatest(id,
+                    task.getTitle(), task.getDescription(), task.getDueDate(), task.getStatus(), Instant.now());
+            if (rows == 0) {
+                throw new TaskNotFoundException(id);
+            }
+            updated = repository.findDtoById(id)
+                    .orElseThrow(() -> new TaskNotFoundException(id));
         }
-        repository.save(task);
-        return dto;
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, id, updated));
+        return updated;
     }
 
     @Override
-    public void deleteTask(int id) {
-        if (!repository.existsById(id)) {
-            throw new TaskNotFoundException(id);
+    @CacheEvict(cacheNames = TASKS_CACHE, key = "#id")
+    public TaskDTO patchTask(int id, TaskPatchDTO patch) {
+        Task task = repository.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
+        if (patch.getVersion() != null && patch.getVersion() != task.getVersion()) {
+            throw new TaskConflictException(id, patch.getVersion());
         }
-        repository.deleteById(id);
+        if (patch.getTitle() != null) {
+            if (patch.getTitle().isBlank()) {
+                throw new IllegalArgumentException("Title cannot be null or blank");
+            }
+            task.setTitle(patch.getTitle());
+        }
+        if (patch.getDescription() != null) {
+            task.setDescription(patch.getDescription());
+        }
+        if (patch.getDueDate() != null) {
+            if (patch.getDueDate().isBefore(LocalDate.now())) {
+                throw new IllegalArgumentException("Due date cannot be in the past");
+            }
+            task.setDueDate(patch.getDueDate());
+        }
+        if (patch.getStatus() != null) {
+            task.setStatus(patch.getStatus());
+        }
+        //@DynamicUpdate: в UPDATE попадут только изменённые колонки, версия проверяется в WHERE
+        repository.flush();
+        TaskDTO patched = taskMapper.toDto(task);
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, id, patched));
+        return patched;
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = TASKS_CACHE, allEntries = true)
+    public List<TaskBatchResultDTO> applyBatch(List<TaskBatchOperationDTO> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("Batch cannot be empty");
+        }
+        if (operations.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + MAX_BATCH_SIZE + " operations");
+        }
+        List<TaskBatchResultDTO> results = new ArrayList<>(operations.size());
+        for (int offset = 0; offset < operations.size(); offset += batchChunkSize) {
+            List<TaskBatchOperationDTO> chunk = operations.subList(offset, Math.min(offset + batchChunkSize, operations.size()));
+            try {
+                results.addAll(batchProcessor.processChunk(chunk, offset));
+            } catch (RuntimeException e) {
+                //транзакция чанка откатилась целиком, остальные чанки не затронуты
+                for (int i = 0; i < chunk.size(); i++) {
+                    TaskBatchOperationDTO operation = chunk.get(i);
+                    results.add(TaskBatchResultDTO.failure(offset + i, operation.getOp(), operation.getId(),
+                            "Chunk rolled back: " + e.getMessage()));
+                }
+            }
+        }
+        return results;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = TASKS_CACHE, key = "#id")
+    public void deleteTask(int id) {
+        Task task = repository.findById(id).orElseThrow(() -> new TaskNotFoundException(id));
+        //DELETE проверяет версию загруженной сущности: событие несёт версию именно удалённой строки
+        repository.delete(task);
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, id, null, task.getVersion()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> getAllTasks() {
-        List<Task> tasks = repository.findAll();
-        tasks.forEach(t -> System.out.println("Entity task: " + t));
-        List<TaskDTO> dtos = taskMapper.toDtoList(tasks);
-        dtos.forEach(d -> System.out.println("DTO: " + d));
+        List<TaskDTO> dtos = readTasks(readyIndex(), null, TaskSort.ID);
+        log.debug("getAllTasks: {} tasks", dtos.size());
+        if (log.isTraceEnabled()) {
+            dtos.forEach(d -> log.trace("DTO: {}", d));
+        }
         return dtos;
     }
 
+    //прочитанное с реплики в кэш не попадает: после записи и вытеснения отстающая реплика вернула бы
+    //прежнюю версию, и кэш отдавал бы её даже запросам, закреплённым за основной базой.
+    //Кэш хранит DTO по ссылке и отдаёт всем вызывающим один и тот же экземпляр: результат нельзя менять
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = TASKS_CACHE, key = "#id",
+            unless = "T(com.example.SpringToDo.datasource.ReplicaRoutingDataSource).isLastReadFromReplica()")
     public TaskDTO getTaskById(int id) {
-        Task task = repository.findById(id)
+        return repository.findDtoById(id)
                 .orElseThrow(() -> new TaskNotFoundException(id));
-        return taskMapper.toDto(task);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> filterTasksByStatus(TaskStatus status) {
         if (status == null) {
             throw new IllegalArgumentException("Status cannot be null");
         }
-        List<Task> tasks = repository.findAll().stream()
-                .filter(task -> task.getStatus() == status)
-                .collect(Collectors.toList());
-        return tasks.stream()
-                .map(taskMapper::toDto)
-                .collect(Collectors.toList());
+        return readTasks(readyIndex(), status, TaskSort.ID);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> getAllTasksSortedByDueDate() {
-        List<Task> tasks = repository.findAll().stream()
-                .sorted(Comparator.comparing(Task::getDueDate))
-                .collect(Collectors.toList());
-
-        return tasks.stream()
-                .map(taskMapper::toDto)
-                .collect(Collectors.toList());
+        return readTasks(readyIndex(), null, TaskSort.DUE_DATE);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> getAllTasksSortedByStatus() {
-        List<Task> tasks = repository.findAll().stream()
-                .sorted(Comparator.comparing(Task::getStatus))
-                .collect(Collectors.toList());
+        return readTasks(readyIndex(), null, TaskSort.STATUS);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getAllTasksIncludingArchived(TaskStatus status, TaskSort sort) {
+        return withArchived(readTasks(readyIndex(), status, sort), status, sort);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Revisioned<List<TaskDTO>> getTaskList(TaskStatus status, TaskSort sort, boolean includeArchived,
+                                                 Predicate<String> notModified) {
+        //источник выбирается один раз: индекс, догрузившийся между ревизией и списком, отдал бы список чужой ревизии
+        Optional<TaskSortedIndex> index = readyIndex();
+        String revision = index.map(TaskSortedIndex::getRevision)
+                .orElseGet(() -> String.valueOf(getTasksRevision()));
+        if (notModified.test(revision)) {
+            return new Revisioned<>(revision, null);
+        }
+        List<TaskDTO> tasks = readTasks(index, status, sort);
+        return new Revisioned<>(revision, includeArchived ? withArchived(tasks, status, sort) : tasks);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskDTO getArchivedTaskById(int id) {
+        return archiveRepository.findDtoById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
+    }
+
+    @Override
+    @CacheEvict(cacheNames = TASKS_CACHE, key = "#id")
+    public TaskDTO restoreTask(int id, TaskStatus status) {
+        TaskDTO archived = getArchivedTaskById(id);
+        TaskDTO restored = new TaskDTO(id, archived.getTitle(), archived.getDescription(), archived.getDueDate(),
+                status != null ? status : archived.getStatus(), archived.getVersion() + 1);
+        //восстановленная выполненной считается выполненной сейчас, иначе следующий проход архивации сразу вернёт её в архив
+        repository.insertWithId(id, restored.getTitle(), restored.getDescription(), restored.getDueDate(),
+                restored.getStatus().name(), restored.getVersion(),
+                restored.getStatus() == TaskStatus.DONE ? Instant.now() : null);
+        archiveRepository.deleteAllByIdInBatch(List.of(id));
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, id, restored));
+        return restored;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getTasksDueBetween(TaskStatus status, LocalDate from, LocalDate before, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (from != null && before != null && from.isAfter(before)) {
+            throw new IllegalArgumentException("'from' must not be after 'before'");
+        }
+        Optional<TaskSortedIndex> index = readyIndex();
+        if (index.isPresent()) {
+            return index.get().getDueBetween(status, from, before, limit);
+        }
+        return repository.findDtosDueBetween(status, from, before, PageRequest.ofSize(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getTasksRevision() {
+        return revisionRepository.findById(TaskRevision.ID)
+                .map(TaskRevision::getRevision)
+                .orElse(0L);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPageDTO getTasksPage(TaskStatus status, TaskSort sort, String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        //внутри одного статуса сортировка по статусу вырождается в сортировку по id
+        if (status != null && sort == TaskSort.STATUS) {
+            sort = TaskSort.ID;
+        }
+        TaskCursor cursor = after == null ? null : TaskCursor.decode(after, sort);
+
+        //берём на одну строку больше, чтобы понять, есть ли следующая страница
+        List<TaskDTO> tasks = findKeysetPage(status, sort, cursor, limit + 1);
+        boolean hasNext = tasks.size() > limit;
+        List<TaskDTO> items = hasNext ? tasks.subList(0, limit) : tasks;
+        String next = hasNext ? TaskCursor.of(sort, items.get(items.size() - 1)).encode() : null;
+        return new TaskPageDTO(items, next);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Revisioned<TaskPageDTO> getTasksPage(TaskStatus status, TaskSort sort, String after, int limit,
+                                                Predicate<String> notModified) {
+        //страницы читаются только из базы: ревизия из той же транзакции
+        String revision = String.valueOf(getTasksRevision());
+        if (notModified.test(revision)) {
+            return new Revisioned<>(revision, null);
+        }
+        return new Revisioned<>(revision, getTasksPage(status, sort, after, limit));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TaskStatsDTO getTaskStats() {
+        return statsCounter.getStats(LocalDate.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPageDTO searchTasks(String query, String after, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be blank");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        //порядок по релевантности не даёт стабильного ключа для keyset, курсор поиска — смещение
+        int offset = after == null ? 0 : decodeSearchOffset(after);
+        List<TaskDTO> tasks = taskSearch.search(query, offset, limit + 1);
+        boolean hasNext = tasks.size() > limit;
+        List<TaskDTO> items = hasNext ? tasks.subList(0, limit) : tasks;
+        String next = hasNext ? encodeSearchOffset(offset + limit) : null;
+        return new TaskPageDTO(items, next);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasks(Consumer<TaskDTO> consumer) {
+        try (Stream<Task> tasks = repository.streamAllByOrderById()) {
+            tasks.forEach(task -> {
+                consumer.accept(taskMapper.toDto(task));
+                //иначе контекст персистентности копит все прочитанные сущности
+                entityManager.detach(task);
+            });
+        }
+    }
+
+    //до загрузки при старте индекс пуст, читаем из базы
+    private Optional<TaskSortedIndex> readyIndex() {
+        return sortedIndex.filter(TaskSortedIndex::isReady);
+    }
+
+    //со статусом — задачи статуса по id, без него — все задачи в порядке sort
+    private List<TaskDTO> readTasks(Optional<TaskSortedIndex> index, TaskStatus status, TaskSort sort) {
+        if (status != null) {
+            return index.map(i -> i.getByStatus(status)).orElseGet(() -> repository.findDtosByStatus(status));
+        }
+        return switch (sort) {
+            case ID -> index.map(TaskSortedIndex::getAll).orElseGet(repository::findAllDtos);
+            case DUE_DATE -> index.map(TaskSortedIndex::getSortedByDueDate).orElseGet(repository::findDtosOrderByDueDate);
+            case STATUS -> index.map(TaskSortedIndex::getSortedByStatus).orElseGet(this::findAllOrderedByStatus);
+        };
+    }
 
-        return tasks.stream()
-                .map(taskMapper::toDto)
-                .collect(Collectors.toList());
+    //порядок статусов — порядок enum, а не строк в базе, поэтому по запросу на статус
+    private List<TaskDTO> findAllOrderedByStatus() {
+        List<TaskDTO> dtos = new ArrayList<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            dtos.addAll(repository.findDtosByStatus(status));
+        }
+        return dtos;
+    }
+
+    private List<TaskDTO> withArchived(List<TaskDTO> active, TaskStatus status, TaskSort sort) {
+        List<TaskDTO> tasks = new ArrayList<>(active);
+        if (status != null) {
+            tasks.addAll(archiveRepository.findDtosByStatus(status));
+            sort = TaskSort.ID;
+        } else {
+            tasks.addAll(archiveRepository.findAllDtos());
+        }
+        tasks.sort(sort.comparator());
+        return tasks;
+    }
+
+    private static String encodeSearchOffset(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((SEARCH_CURSOR_PREFIX + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeSearchOffset(String after) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            if (!raw.startsWith(SEARCH_CURSOR_PREFIX)) {
+                throw new IllegalArgumentException();
+            }
+            int offset = Integer.parseInt(raw.substring(SEARCH_CURSOR_PREFIX.length()));
+            if (offset < 0) {
+                throw new IllegalArgumentException();
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + after);
+        }
+    }
+
+    private RuntimeException missingOrConflict(int id, long expectedVersion) {
+        if (repository.findVersionById(id).isEmpty()) {
+            return new TaskNotFoundException(id);
+        }
+        return new TaskConflictException(id, expectedVersion);
+    }
+
+    private List<TaskDTO> findKeysetPage(TaskStatus status, TaskSort sort, TaskCursor cursor, int size) {
+        if (sort == TaskSort.DUE_DATE) {
+            return findDueDateOrderedPage(status, cursor, size);
+        }
+        if (sort == TaskSort.STATUS) {
+            return findStatusOrderedPage(cursor, size);
+        }
+        Pageable page = PageRequest.ofSize(size);
+        int afterId = cursor == null ? 0 : cursor.getId();
+        return status != null
+                ? repository.findKeysetPageByStatus(status, afterId, page)
+                : repository.findKeysetPage(afterId, page);
+    }
+
+    //задачи без срока идут после задач со сроком по id: когда задачи со сроком после курсора кончились,
+    //страница добирается задачами без срока
+    private List<TaskDTO> findDueDateOrderedPage(TaskStatus status, TaskCursor cursor, int size) {
+        if (cursor == null) {
+            Pageable page = PageRequest.ofSize(size);
+            return status != null
+                    ? repository.findKeysetPageByStatusOrderByDueDate(status, page)
+                    : repository.findKeysetPageOrderByDueDate(page);
+        }
+        List<TaskDTO> result = new ArrayList<>(size);
+        int afterId = cursor.getId();
+        if (cursor.getDueDate() != null) {
+            Pageable page = PageRequest.ofSize(size);
+            result.addAll(status != null
+                    ? repository.findKeysetPageByStatusAfterDueDate(status, cursor.getDueDate(), afterId, page)
+                    : repository.findKeysetPageAfterDueDate(cursor.getDueDate(), afterId, page));
+            afterId = 0;
+        }
+        if (result.size() < size) {
+            Pageable rest = PageRequest.ofSize(size - result.size());
+            result.addAll(status != null
+                    ? repository.findKeysetPageByStatusWithoutDueDate(status, afterId, rest)
+                    : repository.findKeysetPageWithoutDueDate(afterId, rest));
+        }
+        return result;
+    }
+
+    //статус хранится строкой, поэтому порядок TODO -> IN_PROGRESS -> DONE собираем по одному статусу за запрос
+    private List<TaskDTO> findStatusOrderedPage(TaskCursor cursor, int size) {
+        TaskStatus[] statuses = TaskStatus.values();
+        int from = cursor == null ? 0 : cursor.getStatus().ordinal();
+        int afterId = cursor == null ? 0 : cursor.getId();
+        List<TaskDTO> result = new ArrayList<>(size);
+        for (int i = from; i < statuses.length && result.size() < size; i++) {
+            result.addAll(repository.findKeysetPageByStatus(statuses[i], afterId, PageRequest.ofSize(size - result.size())));
+            afterId = 0;
+        }
+        return result;
     }
 
-    private void validateTask(Task task) {
+    static void validateTask(Task task) {
         if (task == null) {
             throw new NullPointerException("Task cannot be null");
         }
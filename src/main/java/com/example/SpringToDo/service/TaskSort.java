@@ -0,0 +1,34 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.model.TaskStatus;
+
+import java.util.Comparator;
+
+public enum TaskSort {
+    ID,
+    DUE_DATE,
+    STATUS;
+
+    //значения параметра sort, которые принимают контроллеры ("dueDate", "status"), остальное — сортировка по id
+    public static TaskSort fromParam(String sort) {
+        if ("dueDate".equalsIgnoreCase(sort)) {
+            return DUE_DATE;
+        }
+        if ("status".equalsIgnoreCase(sort)) {
+            return STATUS;
+        }
+        return ID;
+    }
+
+    //тот же порядок, что у запросов с этой сортировкой, для списков, собранных в памяти
+    public Comparator<TaskDTO> comparator() {
+        return switch (this) {
+            case ID -> Comparator.comparingInt(TaskDTO::getId);
+            case DUE_DATE -> TaskSortedIndex.BY_DUE_DATE;
+            case STATUS -> Comparator
+                    .comparing(TaskDTO::getStatus, Comparator.nullsLast(Comparator.<TaskStatus>naturalOrder()))
+                    .thenComparingInt(TaskDTO::getId);
+        };
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Отсортированные копии задач в памяти (todo.index.enabled): по id, по (dueDate, id) и по (status, dueDate, id).
+ * Загружаются при старте, обновляются по {@link TaskChangedEvent} после коммита и по расписанию сверяются с базой.
+ * Чтение идёт без блокировок; пока применяется изменение задачи, параллельное чтение может не увидеть её
+ * или увидеть в прежнем месте.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.index.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class TaskSortedIndex {
+    //задачи без срока или статуса — в конце, как NULLS LAST
+    static final Comparator<TaskDTO> BY_DUE_DATE = Comparator
+            .comparing(TaskDTO::getDueDate, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+            .thenComparingInt(TaskDTO::getId);
+    static final Comparator<TaskDTO> BY_STATUS_DUE_DATE = Comparator
+            .comparing(TaskDTO::getStatus, Comparator.nullsLast(Comparator.<TaskStatus>naturalOrder()))
+            .thenComparing(BY_DUE_DATE);
+    private static final int MAX_TOMBSTONES = 10_000;
+
+    private final TaskRepository repository;
+
+    //изменения применяются по одному; чтение блокировку не берёт
+    private final ReentrantLock writeLock = new ReentrantLock();
+    //null, пока индекс не загружен: тогда TaskServiceImpl читает из базы
+    private volatile Snapshot snapshot;
+    //пока идёт загрузка, события запоминаются и применяются повторно поверх снимка из базы
+    private List<TaskChangedEvent> pendingDuringLoad;
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Ревизия индекса для ETag списков, отданных из него: своя у каждой загрузки, растёт с каждым применённым
+     * изменением. Читается раньше списка, поэтому список никогда не старее ревизии. После перезагрузки прежние
+     * ревизии больше не выдаются, и закэшированный клиентом список по ним не подтверждается.
+     */
+    public String getRevision() {
+        Snapshot current = snapshot();
+        return "i" + Long.toHexString(current.generation) + "-" + current.applied;
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.byId.size();
+    }
+
+    /**
+     * Перечитывает задачи из базы и заменяет индекс. Возвращает число задач, расходившихся с базой
+     * (задачи, изменённые во время сверки, не считаются), при первой загрузке — 0.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${todo.index.check-interval-ms:3600000}",
+            initialDelayString = "${todo.index.check-interval-ms:3600000}")
+    public int reload() {
+        writeLock.lock();
+        try {
+            pendingDuringLoad = new ArrayList<>();
+        } finally {
+            writeLock.unlock();
+        }
+        Snapshot loaded = new Snapshot();
+        try {
+            repository.findAllDtos().forEach(loaded::put);
+        } catch (RuntimeException e) {
+            writeLock.lock();
+            try {
+                pendingDuringLoad = null;
+            } finally {
+                writeLock.unlock();
+            }
+            throw e;
+        }
+
+        writeLock.lock();
+        try {
+            Snapshot previous = snapshot;
+            int mismatches = 0;
+            if (previous != null) {
+                Set<Integer> changed = new HashSet<>();
+                pendingDuringLoad.forEach(event -> changed.add(event.getId()));
+                mismatches = countMismatches(previous, loaded, changed);
+            }
+            pendingDuringLoad.forEach(loaded::apply);
+            pendingDuringLoad = null;
+            snapshot = loaded;
+            if (mismatches > 0) {
+                log.warn("Task index differed from database in {} tasks, reloaded", mismatches);
+            }
+            return mismatches;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current != null) {
+                current.apply(event);
+                current.applied++;
+            }
+            if (pendingDuringLoad != null) {
+                pendingDuringLoad.add(event);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public List<TaskDTO> getAll() {
+        return new ArrayList<>(snapshot().byId.values());
+    }
+
+    public List<TaskDTO> getSortedByDueDate() {
+        return new ArrayList<>(snapshot().byDueDate);
+    }
+
+    //порядок как у TaskServiceImpl: статусы в порядке enum, внутри статуса — по id
+    public List<TaskDTO> getSortedByStatus() {
+        Map<TaskStatus, List<TaskDTO>> byStatus = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, new ArrayList<>());
+        }
+        for (TaskDTO task : snapshot().byId.values()) {
+            if (task.getStatus() != null) {
+                byStatus.get(task.getStatus()).add(task);
+            }
+        }
+        List<TaskDTO> result = new ArrayList<>(size());
+        byStatus.values().forEach(result::addAll);
+        return result;
+    }
+
+    public List<TaskDTO> getByStatus(TaskStatus status) {
+        //все задачи статуса, включая задачи без срока: до первой задачи следующего статуса
+        TaskStatus[] statuses = TaskStatus.values();
+        TaskStatus next = status.ordinal() + 1 < statuses.length ? statuses[status.ordinal() + 1] : null;
+        List<TaskDTO> tasks = new ArrayList<>(snapshot().byStatusDueDate
+                .subSet(probe(status, LocalDate.MIN), true, probe(next, LocalDate.MIN), false));
+        tasks.sort(Comparator.comparingInt(TaskDTO::getId));
+        return tasks;
+    }
+
+    //задачи со сроком в [from, before) по возрастанию срока, не больше limit; границы и статус необязательны
+    public List<TaskDTO> getDueBetween(TaskStatus status, LocalDate from, LocalDate before, int limit) {
+        TaskDTO lower = probe(status, from != null ? from : LocalDate.MIN);
+        TaskDTO upper = probe(status, before);
+        Snapshot current = snapshot();
+        NavigableSet<TaskDTO> range = status != null
+                ? current.byStatusDueDate.subSet(lower, true, upper, false)
+                : current.byDueDate.subSet(lower, true, upper, false);
+        List<TaskDTO> result = new ArrayList<>(Math.min(limit, 1024));
+        for (TaskDTO task : range) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    //граница диапазона: меньше любой задачи с тем же статусом и сроком; срок null — после всех задач со сроком
+    private static TaskDTO probe(TaskStatus status, LocalDate dueDate) {
+        return new TaskDTO(Integer.MIN_VALUE, null, null, dueDate, status, null);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Task index is not loaded");
+        }
+        return current;
+    }
+
+    private static int countMismatches(Snapshot indexed, Snapshot database, Set<Integer> changed) {
+        int mismatches = 0;
+        for (TaskDTO task : database.byId.values()) {
+            if (!changed.contains(task.getId()) && !Objects.equals(task, indexed.byId.get(task.getId()))) {
+                mismatches++;
+            }
+        }
+        for (Integer id : indexed.byId.keySet()) {
+            if (!changed.contains(id) && !database.byId.containsKey(id)) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    private static final class Snapshot {
+        private final ConcurrentSkipListMap<Integer, TaskDTO> byId = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListSet<TaskDTO> byDueDate = new ConcurrentSkipListSet<>(BY_DUE_DATE);
+        private final ConcurrentSkipListSet<TaskDTO> byStatusDueDate = new ConcurrentSkipListSet<>(BY_STATUS_DUE_DATE);
+        //случайный номер загрузки: ревизии разных загрузок и разных экземпляров приложения не совпадают
+        private final long generation = ThreadLocalRandom.current().nextLong();
+        //число применённых событий; меняется под writeLock после применения, читается без блокировки
+        private volatile long applied;
+        //id удалённой задачи -> версия удалённой строки, только под writeLock: запоздавшее UPDATE той же или более
+        //старой версии не вернёт задачу. Новая загрузка начинает с пустой картой, как и с пустыми наборами
+        private final Map<Integer, Long> deletedVersions = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Long> eldest) {
+                return size() > MAX_TOMBSTONES;
+            }
+        };
+
+        void apply(TaskChangedEvent event) {
+            if (isStale(event.getId(), event.getVersion())) {
+                return;
+            }
+            if (event.getType() == TaskChangedEvent.Type.DELETED || event.getTask() == null) {
+                TaskDTO previous = byId.get(event.getId());
+                Long version = event.getVersion() != null ? event.getVersion()
+                        : previous != null ? previous.getVersion() : null;
+                remove(event.getId());
+                if (version != null) {
+                    deletedVersions.merge(event.getId(), version, Math::max);
+                }
+            } else {
+                //восстановление из архива приходит с версией выше удалённой
+                deletedVersions.remove(event.getId());
+                put(event.getTask());
+            }
+        }
+
+        //копия: DTO из события или запроса может измениться, а положение в наборах зависит от его полей
+        void put(TaskDTO task) {
+            TaskDTO copy = new TaskDTO(task.getId(), task.getTitle(), task.getDescription(), task.getDueDate(),
+                    task.getStatus(), task.getVersion());
+            remove(copy.getId());
+            byId.put(copy.getId(), copy);
+            byDueDate.add(copy);
+            byStatusDueDate.add(copy);
+        }
+
+        void remove(int id) {
+            TaskDTO previous = byId.remove(id);
+            if (previous != null) {
+                byDueDate.remove(previous);
+                byStatusDueDate.remove(previous);
+            }
+        }
+
+        //события разных транзакций приходят в произвольном порядке: более старая версия не затирает новую
+        //и не возвращает удалённую задачу, а запоздавшее удаление не снимает восстановленную из архива
+        private boolean isStale(int id, Long version) {
+            if (version == null) {
+                return false;
+            }
+            TaskDTO current = byId.get(id);
+            if (current != null && current.getVersion() != null && current.getVersion() > version) {
+                return true;
+            }
+            Long deleted = deletedVersions.get(id);
+            return deleted != null && deleted >= version;
+        }
+    }
+}
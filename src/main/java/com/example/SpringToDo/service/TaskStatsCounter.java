@@ -0,0 +1,208 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskStatsDTO;
+import com.example.SpringToDo.dto.TaskStatsEntryDTO;
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Счётчики для GET /api/v1/tasks/stats. Обновляются по {@link TaskChangedEvent} после коммита,
+ * по расписанию сверяются с базой. Для разницы "до/после" хранится статус, срок и версия каждой задачи,
+ * поэтому повторное применение события ничего не меняет, а событие со старой версией пропускается.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskStatsCounter {
+    //события приходят не по порядку в пределах долей секунды: столько последних удалений помнят версию
+    private static final int MAX_DELETED_VERSIONS = 10_000;
+
+    private final TaskRepository repository;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Integer, TaskStatsEntryDTO> entries = new HashMap<>();
+    private final long[] byStatus = new long[TaskStatus.values().length];
+    //незавершённые задачи по сроку выполнения
+    private final NavigableMap<LocalDate, Long> openByDueDate = new TreeMap<>();
+    //id удалённой задачи -> версия удалённой строки; переживает сверку: запоздавшее событие может прийти после неё
+    private final Map<Integer, Long> deletedVersions = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Long> eldest) {
+            return size() > MAX_DELETED_VERSIONS;
+        }
+    };
+
+    //overdue и dueThisWeek считаются относительно countedDay и пересчитываются, когда наступает новый день
+    private LocalDate countedDay;
+    private long overdue;
+    private long dueThisWeek;
+
+    //пока идёт сверка, события запоминаются и применяются повторно поверх снимка из базы
+    private List<TaskChangedEvent> pendingDuringReconcile;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${todo.stats.reconcile-interval-ms:600000}",
+            initialDelayString = "${todo.stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        lock.lock();
+        try {
+            pendingDuringReconcile = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+        List<TaskStatsEntryDTO> snapshot;
+        try {
+            snapshot = repository.findStatsEntries();
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                pendingDuringReconcile = null;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            long before = entries.size();
+            entries.clear();
+            openByDueDate.clear();
+            Arrays.fill(byStatus, 0);
+            countedDay = null;
+            snapshot.forEach(entry -> apply(entry.getId(), entry));
+            pendingDuringReconcile.forEach(this::apply);
+            pendingDuringReconcile = null;
+            if (before != entries.size()) {
+                log.info("Task stats reconciled: {} tasks in counters, {} in database", before, entries.size());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        lock.lock();
+        try {
+            apply(event);
+            if (pendingDuringReconcile != null) {
+                pendingDuringReconcile.add(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public TaskStatsDTO getStats(LocalDate today) {
+        lock.lock();
+        try {
+            if (!today.equals(countedDay)) {
+                recountDueDates(today);
+            }
+            Map<TaskStatus, Long> statuses = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : TaskStatus.values()) {
+                statuses.put(status, byStatus[status.ordinal()]);
+            }
+            return new TaskStatsDTO(entries.size(), statuses, overdue, dueThisWeek);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(TaskChangedEvent event) {
+        if (isStale(event.getId(), event.getVersion())) {
+            return;
+        }
+        TaskDTO task = event.getTask();
+        if (event.getType() == TaskChangedEvent.Type.DELETED || task == null) {
+            TaskStatsEntryDTO previous = entries.get(event.getId());
+            Long version = event.getVersion() != null ? event.getVersion()
+                    : previous != null ? previous.getVersion() : null;
+            apply(event.getId(), null);
+            if (version != null) {
+                deletedVersions.merge(event.getId(), version, Math::max);
+            }
+        } else {
+            deletedVersions.remove(event.getId());
+            apply(event.getId(), new TaskStatsEntryDTO(event.getId(), task.getStatus(), task.getDueDate(),
+                    task.getVersion()));
+        }
+    }
+
+    //как в TaskSortedIndex: событие другой транзакции может прийти позже более нового; удаление старше
+    //любой записанной до него версии, восстановление из архива — новее удаления
+    private boolean isStale(int id, Long version) {
+        if (version == null) {
+            return false;
+        }
+        TaskStatsEntryDTO current = entries.get(id);
+        if (current != null && current.getVersion() != null && current.getVersion() > version) {
+            return true;
+        }
+        Long deleted = deletedVersions.get(id);
+        return deleted != null && deleted >= version;
+    }
+
+    private void apply(int id, TaskStatsEntryDTO entry) {
+        TaskStatsEntryDTO previous = entry != null ? entries.put(id, entry) : entries.remove(id);
+        if (previous != null) {
+            count(previous, -1);
+        }
+        if (entry != null) {
+            count(entry, 1);
+        }
+    }
+
+    private void count(TaskStatsEntryDTO entry, long delta) {
+        if (entry.getStatus() != null) {
+            byStatus[entry.getStatus().ordinal()] += delta;
+        }
+        if (entry.getStatus() == TaskStatus.DONE || entry.getDueDate() == null) {
+            return;
+        }
+        openByDueDate.merge(entry.getDueDate(), delta, (a, b) -> a + b == 0 ? null : a + b);
+        if (countedDay != null) {
+            if (entry.getDueDate().isBefore(countedDay)) {
+                overdue += delta;
+            } else if (!entry.getDueDate().isAfter(weekEnd(countedDay))) {
+                dueThisWeek += delta;
+            }
+        }
+    }
+
+    //раз в сутки: сумма по различным срокам, а не по задачам
+    private void recountDueDates(LocalDate today) {
+        overdue = openByDueDate.headMap(today, false).values().stream().mapToLong(Long::longValue).sum();
+        dueThisWeek = openByDueDate.subMap(today, true, weekEnd(today), true).values().stream()
+                .mapToLong(Long::longValue).sum();
+        countedDay = today;
+    }
+
+    private static LocalDate weekEnd(LocalDate day) {
+        return day.with(DayOfWeek.SUNDAY);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.SpringToDo.startup;
+
+import com.example.SpringToDo.search.TaskSearch;
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Method;
+
+/**
+ * Какие бины остаются неленивыми при spring.main.lazy-initialization (профиль fast-startup).
+ * REST-контроллеры со всеми зависимостями создаются сразу, чтобы первый запрос к API не платил за их создание.
+ * Бины с @Scheduled, @EventListener (в т.ч. @TransactionalEventListener) и @PostConstruct тоже создаются сразу:
+ * ленивыми они пропустили бы загрузку при старте, расписание или события до первого обращения к ним.
+ */
+@Configuration
+public class FastStartupConfig {
+
+    //static: фильтр нужен фабрике бинов до создания остальных бинов конфигурации
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && isEager(ClassUtils.getUserClass(beanType));
+    }
+
+    static boolean isEager(Class<?> type) {
+        //@Bean-методы с интерфейсом в сигнатуре: реализация выбирается при создании, её слушатели отсюда не видны
+        if (TaskSearch.class.isAssignableFrom(type) || AnnotatedElementUtils.hasAnnotation(type, RestController.class)) {
+            return true;
+        }
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(type, ReflectionUtils.USER_DECLARED_METHODS)) {
+            if (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                    || AnnotatedElementUtils.hasAnnotation(method, Schedules.class)
+                    || AnnotatedElementUtils.hasAnnotation(method, EventListener.class)
+                    || method.isAnnotationPresent(PostConstruct.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,18 @@
+-- Колонка и индекс полнотекстового поиска для PostgresTaskSearch. Запускается один раз, в окно обслуживания:
+-- ADD COLUMN ... STORED переписывает всю таблицу под ACCESS EXCLUSIVE, чтение и запись task ждут до COMMIT.
+--   psql -v config=simple -f task-search-vector.sql
+-- config — то же значение, что todo.search.text-search-config. Повторный запуск ничего не меняет.
+\set ON_ERROR_STOP on
+\if :{?config}
+\else
+\set config simple
+\endif
+
+BEGIN;
+-- не стоять в очереди за долгими транзакциями: все запросы к task встали бы в очередь за этим ALTER
+SET LOCAL lock_timeout = '5s';
+ALTER TABLE task ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector(:'config', coalesce(title, '') || ' ' || coalesce(description, ''))) STORED;
+-- таблица уже заблокирована ALTER; CONCURRENTLY не поддерживается для секционированной task
+CREATE INDEX IF NOT EXISTS idx_task_search ON task USING GIN (search_vector);
+COMMIT;
@@ -0,0 +1,170 @@
+package com.example.SpringToDo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Время от запуска JVM до первого ответа API (GET /api/v1/tasks?limit=1): обычный старт против профиля fast-startup.
+ * Каждый прогон — отдельный процесс java на H2 в файле (схему создаёт первый, неучитываемый обычный старт)
+ * или на TODO_PG_URL. С -Dbenchmark.startup.dir=build/fast-startup/application (после
+ * ./gradlew -PfastStartup cdsArchive) запускается извлечённый bootJar и добавляется режим с AppCDS и классами AOT.
+ * Запуск: ./gradlew benchmark --tests '*StartupBenchmarkTest' -Dbenchmark.startup.runs=5
+ */
+@Tag("benchmark")
+class StartupBenchmarkTest {
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final List<String> FAST_STARTUP = List.of("--spring.profiles.active=fast-startup");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @TempDir
+    Path tempDir;
+
+    private record Mode(String name, Path workingDir, List<String> jvmArgs, List<String> launch, List<String> appArgs) {
+    }
+
+    @Test
+    @DisplayName("Время до первого запроса: обычный старт, fast-startup и fast-startup с AppCDS и AOT")
+    void timeToFirstRequest() throws Exception {
+        int runs = Integer.getInteger("benchmark.startup.runs", 5);
+        List<Mode> modes = modes(System.getProperty("benchmark.startup.dir"));
+
+        //первый обычный старт создаёт схему в H2 и прогревает файловый кэш ОС, в результаты не идёт
+        timeToFirstResponse(modes.get(0));
+        Map<Mode, List<Long>> results = new LinkedHashMap<>();
+        for (int run = 0; run < runs; run++) {
+            for (Mode mode : modes) {
+                results.computeIfAbsent(mode, m -> new ArrayList<>()).add(timeToFirstResponse(mode));
+            }
+        }
+
+        results.forEach((mode, millis) -> {
+            Collections.sort(millis);
+            System.out.printf("startup %s: time to first request median=%d ms min=%d ms max=%d ms (%d runs)%n",
+                    mode.name(), millis.get(millis.size() / 2), millis.get(0), millis.get(millis.size() - 1),
+                    millis.size());
+        });
+    }
+
+    private List<Mode> modes(String applicationDir) throws IOException {
+        List<Mode> modes = new ArrayList<>();
+        if (applicationDir == null) {
+            Path workingDir = Path.of("").toAbsolutePath();
+            //classpath приложения без тестовых классов: их @TestConfiguration попали бы в сканирование компонентов
+            String classpath = System.getProperty("benchmark.startup.classpath", System.getProperty("java.class.path"));
+            List<String> launch = List.of("-cp", classpath, Application.class.getName());
+            modes.add(new Mode("default", workingDir, List.of(), launch, List.of()));
+            modes.add(new Mode("fast-startup", workingDir, List.of(), launch, FAST_STARTUP));
+            return modes;
+        }
+        //jar запускается по тому же относительному пути, что и при записи архива: иначе JVM не примет архив AppCDS
+        Path workingDir = Path.of(applicationDir).toAbsolutePath();
+        String jar;
+        try (Stream<Path> files = Files.list(workingDir)) {
+            jar = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + workingDir));
+        }
+        List<String> launch = List.of("-jar", jar);
+        modes.add(new Mode("jar", workingDir, List.of(), launch, List.of()));
+        modes.add(new Mode("jar fast-startup", workingDir, List.of(), launch, FAST_STARTUP));
+        if (Files.exists(workingDir.resolve("application.jsa"))) {
+            List<String> jvmArgs = new ArrayList<>(List.of("-XX:SharedArchiveFile=application.jsa"));
+            String name = "jar fast-startup + AppCDS";
+            //классы AOT есть только в jar, собранном с -PfastStartup
+            if (Boolean.parseBoolean(System.getProperty("benchmark.startup.aot", "true"))) {
+                jvmArgs.add("-Dspring.aot.enabled=true");
+                name += " + AOT";
+            }
+            modes.add(new Mode(name, workingDir, jvmArgs, launch, FAST_STARTUP));
+        }
+        return modes;
+    }
+
+    private long timeToFirstResponse(Mode mode) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(mode.jvmArgs());
+        command.addAll(mode.launch());
+        command.addAll(mode.appArgs());
+        command.addAll(databaseArgs());
+        command.add("--server.port=" + port);
+        command.add("--logging.level.root=WARN");
+
+        Path log = Files.createTempFile(tempDir, "startup", ".log");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/tasks?limit=1"))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(mode.workingDir().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            while (System.nanoTime() - start < START_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new AssertionError(mode.name() + " exited with " + process.exitValue() + ":\n"
+                            + Files.readString(log));
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        throw new AssertionError(mode.name() + " answered " + response.statusCode() + ":\n"
+                                + Files.readString(log));
+                    }
+                    return (System.nanoTime() - start) / 1_000_000;
+                } catch (IOException e) {
+                    //порт ещё не слушается
+                    Thread.sleep(5);
+                }
+            }
+            throw new AssertionError(mode.name() + " did not answer within " + START_TIMEOUT + ":\n" + Files.readString(log));
+        } finally {
+            //SIGTERM: приложение закрывает H2 штатно, следующий старт не восстанавливает файл базы
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private List<String> databaseArgs() {
+        String pgUrl = System.getenv("TODO_PG_URL");
+        if (pgUrl != null && !pgUrl.isBlank()) {
+            return List.of("--spring.datasource.url=" + pgUrl,
+                    "--spring.datasource.username=" + System.getenv().getOrDefault("TODO_PG_USER", "postgres"),
+                    "--spring.datasource.password=" + System.getenv().getOrDefault("TODO_PG_PASSWORD", "postgres"));
+        }
+        return List.of("--spring.datasource.url=jdbc:h2:file:" + tempDir.resolve("startup").toAbsolutePath(),
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+    }
+}
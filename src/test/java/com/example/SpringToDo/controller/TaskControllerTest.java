@@ -2,12 +2,23 @@ package com.example.SpringToDo.controller;
 
 import com.example.SpringToDo.dto.TaskCreateDTO;
 import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskPageDTO;
+import com.example.SpringToDo.dto.TaskPatchDTO;
+import com.example.SpringToDo.dto.TaskStatsDTO;
+import com.example.SpringToDo.event.TaskEventBus;
 import com.example.SpringToDo.exception.GlobalExceptionHandler;
+import com.example.SpringToDo.exception.TaskConflictException;
 import com.example.SpringToDo.exception.TaskNotFoundException;
+import com.example.SpringToDo.mapper.TaskProtoMapper;
 import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.proto.Task;
+import com.example.SpringToDo.proto.TaskList;
+import com.example.SpringToDo.service.Revisioned;
 import com.example.SpringToDo.service.TaskService;
+import com.example.SpringToDo.service.TaskSort;
 import com.example.SpringToDo.testfactory.TaskTestFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,18 +27,26 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TaskController.class)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, MessageConvertersConfig.class, TaskProtoMapper.class})
 class TaskControllerTest {
 
     @Autowired
@@ -39,6 +58,9 @@ class TaskControllerTest {
     @MockitoBean
     private com.example.SpringToDo.mapper.TaskMapper taskMapper;
 
+    @MockitoBean
+    private TaskEventBus eventBus;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -64,6 +86,7 @@ class TaskControllerTest {
 
         mockMvc.perform(get("/api/v1/tasks/{id}", 1))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"task-1-0-json\""))
                 .andExpect(jsonPath("$.id").value(dto.getId()))
                 .andExpect(jsonPath("$.title").value(dto.getTitle()))
                 .andExpect(jsonPath("$.status").value(dto.getStatus().toString()));
@@ -79,6 +102,26 @@ class TaskControllerTest {
                 .andExpect(content().string("Task with id 999 not found"));
     }
 
+    @Test
+    @DisplayName("GET /api/v1/tasks/{id}?includeArchived=true - задача из архива, POST .../restore возвращает её")
+    void archivedTask_getAndRestore() throws Exception {
+        TaskDTO archived = new TaskDTO(5, "Old", "", LocalDate.now().minusDays(40), TaskStatus.DONE, 2L);
+        when(taskService.getTaskById(5)).thenThrow(new TaskNotFoundException(5));
+        when(taskService.getArchivedTaskById(5)).thenReturn(archived);
+        when(taskService.restoreTask(5, TaskStatus.TODO))
+                .thenReturn(new TaskDTO(5, "Old", "", archived.getDueDate(), TaskStatus.TODO, 3L));
+
+        mockMvc.perform(get("/api/v1/tasks/{id}", 5))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/tasks/{id}", 5).param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("DONE"));
+        mockMvc.perform(post("/api/v1/tasks/{id}/restore", 5).param("status", "TODO"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"task-5-3-json\""))
+                .andExpect(jsonPath("$.status").value("TODO"));
+    }
+
     @Test
     @DisplayName("PUT /api/v1/tasks/{id} - успешно обновить задачу")
     void updateTask_success() throws Exception {
@@ -95,6 +138,67 @@ class TaskControllerTest {
         verify(taskService).updateTask(eq(dto.getId()), any(TaskDTO.class));
     }
 
+    @Test
+    @DisplayName("PUT /api/v1/tasks/{id} с If-Match передаёт версию и отдаёт 409 при конфликте")
+    void updateTask_ifMatchConflict_returnsConflict() throws Exception {
+        TaskDTO dto = TaskTestFactory.createDefaultTaskDTO();
+
+        when(taskService.updateTask(eq(dto.getId()), any(TaskDTO.class)))
+                .thenThrow(new TaskConflictException(dto.getId(), 2L));
+
+        mockMvc.perform(put("/api/v1/tasks/{id}", dto.getId())
+                        .header("If-Match", "\"task-" + dto.getId() + "-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isConflict());
+
+        verify(taskService).updateTask(eq(dto.getId()), argThat(sent -> Long.valueOf(2L).equals(sent.getVersion())));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/v1/tasks/{id} - частично обновить задачу")
+    void patchTask_success() throws Exception {
+        TaskDTO patched = new TaskDTO(1, "Title", "Desc", LocalDate.now().plusDays(1), TaskStatus.DONE, 3L);
+
+        when(taskService.patchTask(eq(1), any(TaskPatchDTO.class))).thenReturn(patched);
+
+        mockMvc.perform(patch("/api/v1/tasks/{id}", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"DONE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"task-1-3-json\""))
+                .andExpect(jsonPath("$.status").value("DONE"));
+
+        verify(taskService).patchTask(eq(1), argThat(p -> p.getStatus() == TaskStatus.DONE && p.getTitle() == null));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks/stats - счётчики задач")
+    void getTaskStats_returnsCounters() throws Exception {
+        when(taskService.getTaskStats()).thenReturn(new TaskStatsDTO(3,
+                Map.of(TaskStatus.TODO, 2L, TaskStatus.IN_PROGRESS, 0L, TaskStatus.DONE, 1L), 1, 2));
+
+        mockMvc.perform(get("/api/v1/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byStatus.TODO").value(2))
+                .andExpect(jsonPath("$.overdue").value(1))
+                .andExpect(jsonPath("$.dueThisWeek").value(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks/search - страница результатов поиска")
+    void searchTasks_returnsPage() throws Exception {
+        TaskDTO found = new TaskDTO(5, "Купить молоко", "", LocalDate.now().plusDays(1), TaskStatus.TODO, 0L);
+        when(taskService.searchTasks("молоко", null, TaskController.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TaskPageDTO(List.of(found), "next-cursor"));
+
+        mockMvc.perform(get("/api/v1/tasks/search").param("q", "молоко"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(5))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+    }
+
     @Test
     @DisplayName("DELETE /api/v1/tasks/{id} - успешно удалить задачу")
     void deleteTask_success() throws Exception {
@@ -112,7 +216,7 @@ class TaskControllerTest {
                 TaskTestFactory.createDefaultTaskDTO()
         );
 
-        when(taskService.getAllTasks()).thenReturn(dtos);
+        givenTaskList(null, TaskSort.ID, "1", dtos);
 
         mockMvc.perform(get("/api/v1/tasks"))
                 .andExpect(status().isOk())
@@ -126,7 +230,7 @@ class TaskControllerTest {
     void getTasks_filteredByStatus() throws Exception {
         List<TaskDTO> todoDtos = List.of(TaskTestFactory.createDefaultTaskDTO());
 
-        when(taskService.filterTasksByStatus(TaskStatus.TODO)).thenReturn(todoDtos);
+        givenTaskList(TaskStatus.TODO, TaskSort.ID, "1", todoDtos);
 
         mockMvc.perform(get("/api/v1/tasks").param("status", "TODO"))
                 .andExpect(status().isOk())
@@ -137,9 +241,215 @@ class TaskControllerTest {
     @Test
     @DisplayName("GET /api/v1/tasks?sort=dueDate - сортировка по дате")
     void getTasks_sortedByDueDate() throws Exception {
-        when(taskService.getAllTasksSortedByDueDate()).thenReturn(List.of());
+        givenTaskList(null, TaskSort.DUE_DATE, "1", List.of());
 
         mockMvc.perform(get("/api/v1/tasks").param("sort", "dueDate"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks?limit=1 - страница с курсором следующей страницы")
+    void getTasks_page() throws Exception {
+        TaskPageDTO page = new TaskPageDTO(List.of(TaskTestFactory.createDefaultTaskDTO()), "next-cursor");
+
+        when(taskService.getTasksPage(eq(null), eq(TaskSort.DUE_DATE), eq(null), eq(1), any()))
+                .thenReturn(new Revisioned<>("1", page));
+
+        mockMvc.perform(get("/api/v1/tasks").param("sort", "dueDate").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks/export - потоковая выгрузка в NDJSON")
+    void exportTasks_ndjson() throws Exception {
+        TaskDTO dto = TaskTestFactory.createDefaultTaskDTO();
+        doAnswer(i -> {
+            Consumer<TaskDTO> consumer = i.getArgument(0);
+            consumer.accept(dto);
+            consumer.accept(dto);
+            return null;
+        }).when(taskService).exportTasks(any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], TaskDTO.class)).isEqualTo(dto);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks/export?format=csv - выгрузка в CSV с экранированием")
+    void exportTasks_csv() throws Exception {
+        TaskDTO dto = TaskTestFactory.createDefaultTaskDTO();
+        dto.setTitle("Title, with comma");
+        doAnswer(i -> {
+            Consumer<TaskDTO> consumer = i.getArgument(0);
+            consumer.accept(dto);
+            return null;
+        }).when(taskService).exportTasks(any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "id,title,description,dueDate,status\n"
+                                + "1,\"Title, with comma\",Default Description," + dto.getDueDate() + ",TODO\n"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks/{id} с совпадающим If-None-Match - 304 без тела")
+    void getTaskById_notModified() throws Exception {
+        TaskDTO dto = TaskTestFactory.createDefaultTaskDTO();
+        dto.setVersion(4L);
+        when(taskService.getTaskById(1)).thenReturn(dto);
+
+        mockMvc.perform(get("/api/v1/tasks/{id}", 1).header("If-None-Match", "\"task-1-4-json\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("ETag зависит от формата ответа: JSON-копия не подтверждается для CBOR и protobuf")
+    void eTag_differsByFormat() throws Exception {
+        TaskDTO dto = TaskTestFactory.createDefaultTaskDTO();
+        dto.setVersion(4L);
+        when(taskService.getTaskById(1)).thenReturn(dto);
+        givenTaskList(null, TaskSort.ID, "5", List.of(dto));
+
+        mockMvc.perform(get("/api/v1/tasks/{id}", 1).accept("application/cbor")
+                        .header("If-None-Match", "\"task-1-4-json\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"task-1-4-cbor\""));
+        mockMvc.perform(get("/api/v1/tasks").accept(TaskProtobufHttpMessageConverter.PROTOBUF)
+                        .header("If-None-Match", "\"tasks-5-json\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"tasks-5-protobuf\""));
+        mockMvc.perform(get("/api/v1/tasks").accept("application/x-jackson-smile")
+                        .header("If-None-Match", "\"tasks-5-smile\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("PUT с If-Match из ответа в CBOR - версия берётся без суффикса формата")
+    void updateTask_ifMatchWithFormat() throws Exception {
+        TaskDTO dto = TaskTestFactory.createDefaultTaskDTO();
+        when(taskService.updateTask(eq(dto.getId()), any(TaskDTO.class))).thenReturn(dto);
+
+        mockMvc.perform(put("/api/v1/tasks/{id}", dto.getId())
+                        .header("If-Match", "\"task-" + dto.getId() + "-7-cbor\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+
+        verify(taskService).updateTask(eq(dto.getId()), argThat(sent -> Long.valueOf(7L).equals(sent.getVersion())));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks с актуальным If-None-Match - 304 без чтения задач")
+    void getAllTasks_notModified() throws Exception {
+        givenTaskList(null, TaskSort.ID, "5", List.of(TaskTestFactory.createDefaultTaskDTO()));
+
+        mockMvc.perform(get("/api/v1/tasks").header("If-None-Match", "\"tasks-5-json\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks после изменений - новый ETag и тело")
+    void getAllTasks_modified() throws Exception {
+        givenTaskList(null, TaskSort.ID, "6", List.of(TaskTestFactory.createDefaultTaskDTO()));
+
+        mockMvc.perform(get("/api/v1/tasks").header("If-None-Match", "\"tasks-5-json\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"tasks-6-json\""))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks из индекса - ETag по ревизии индекса, а не таблицы")
+    void getAllTasks_indexRevision() throws Exception {
+        givenTaskList(null, TaskSort.ID, "i1f-3", List.of(TaskTestFactory.createDefaultTaskDTO()));
+
+        mockMvc.perform(get("/api/v1/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"tasks-i1f-3-json\""));
+        mockMvc.perform(get("/api/v1/tasks").header("If-None-Match", "\"tasks-i1f-3-json\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks с Accept: application/x-protobuf - список в protobuf")
+    void getAllTasks_protobuf() throws Exception {
+        givenTaskList(null, TaskSort.ID, "1", List.of(TaskTestFactory.createDefaultTaskDTO()));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks").accept(TaskProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TaskProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(header().string("Vary", org.hamcrest.Matchers.containsString("Accept")))
+                .andReturn();
+
+        TaskList list = TaskList.parseFrom(result.getResponse().getContentAsByteArray());
+        assertThat(list.getTasksList()).hasSize(1);
+        Task task = list.getTasks(0);
+        assertThat(task.getTitle()).isEqualTo("Default Title");
+        assertThat(task.getStatus()).isEqualTo(Task.Status.TODO);
+        assertThat(task.getDueDate()).isEqualTo(LocalDate.now().plusDays(1).toEpochDay());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks с Accept: application/cbor - список в CBOR с датами как в JSON")
+    void getAllTasks_cbor() throws Exception {
+        givenTaskList(null, TaskSort.ID, "1", List.of(TaskTestFactory.createDefaultTaskDTO()));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        TaskDTO[] tasks = objectMapper.copyWith(new CBORFactory())
+                .readValue(result.getResponse().getContentAsByteArray(), TaskDTO[].class);
+        assertThat(tasks).hasSize(1);
+        assertThat(tasks[0].getDueDate()).isEqualTo(LocalDate.now().plusDays(1));
+        //без Accept по-прежнему JSON
+        mockMvc.perform(get("/api/v1/tasks"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/tasks с телом в protobuf - задача создаётся")
+    void createTask_protobuf() throws Exception {
+        Task task = Task.newBuilder()
+                .setTitle("Proto")
+                .setDueDate(LocalDate.now().plusDays(2).toEpochDay())
+                .setStatus(Task.Status.IN_PROGRESS)
+                .build();
+
+        mockMvc.perform(post("/api/v1/tasks")
+                        .contentType(TaskProtobufHttpMessageConverter.PROTOBUF)
+                        .content(task.toByteArray()))
+                .andExpect(status().isCreated());
+
+        verify(taskService).createTask(argThat(dto -> "Proto".equals(dto.getTitle())
+                && dto.getStatus() == TaskStatus.IN_PROGRESS
+                && dto.getDueDate().equals(LocalDate.now().plusDays(2))));
+    }
+
+    //как TaskServiceImpl: ревизия передаётся в notModified до чтения списка, при совпадении список не отдаётся
+    private void givenTaskList(TaskStatus status, TaskSort sort, String revision, List<TaskDTO> tasks) {
+        when(taskService.getTaskList(eq(status), eq(sort), eq(false), any())).thenAnswer(invocation -> {
+            Predicate<String> notModified = invocation.getArgument(3);
+            return new Revisioned<>(revision, notModified.test(revision) ? null : tasks);
+        });
+    }
 }
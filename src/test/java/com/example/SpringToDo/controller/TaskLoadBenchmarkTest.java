@@ -0,0 +1,168 @@
+package com.example.SpringToDo.controller;
+
+import com.example.SpringToDo.Application;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочное сравнение обработки запросов на платформенных и виртуальных потоках (профиль virtual-threads).
+ * Каждый режим поднимает приложение целиком на случайном порту; кэш отключён, чтобы запросы доходили до JDBC.
+ * Запуск: ./gradlew benchmark --tests '*TaskLoadBenchmarkTest' -Dbenchmark.concurrency=2000 -Dbenchmark.requests=100000
+ * С переменной TODO_PG_URL нагрузка идёт на PostgreSQL, иначе на H2 в памяти.
+ */
+@Tag("benchmark")
+class TaskLoadBenchmarkTest {
+    private static final int SEED_TASKS = 1_000;
+
+    @Test
+    @DisplayName("Пропускная способность и p99: платформенные потоки против виртуальных")
+    void platformVsVirtualThreads() throws Exception {
+        int concurrency = Integer.getInteger("benchmark.concurrency", 1_000);
+        int requests = Integer.getInteger("benchmark.requests", 50_000);
+
+        Result platform = run("platform", null, concurrency, requests);
+        Result virtual = run("virtual", "virtual-threads", concurrency, requests);
+
+        System.out.println(platform);
+        System.out.println(virtual);
+        assertThat(platform.errors()).isZero();
+        assertThat(virtual.errors()).isZero();
+    }
+
+    private Result run(String mode, String profile, int concurrency, int requests) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Application.class).properties(properties(mode));
+        if (profile != null) {
+            builder.profiles(profile);
+        }
+        try (ConfigurableApplicationContext context = builder.run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            String base = "http://localhost:" + port + "/api/v1/tasks";
+            seed(client, base);
+
+            //прогрев JIT и пула соединений, результаты не учитываются
+            load(mode, client, base, concurrency, Math.max(requests / 10, concurrency));
+            return load(mode, client, base, concurrency, requests);
+        }
+    }
+
+    private Map<String, Object> properties(String mode) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.cache.type", "none");
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("spring.jpa.properties.hibernate.format_sql", false);
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("logging.level.root", "WARN");
+        String pgUrl = System.getenv("TODO_PG_URL");
+        if (pgUrl != null && !pgUrl.isBlank()) {
+            properties.put("spring.datasource.url", pgUrl);
+            properties.put("spring.datasource.username", System.getenv().getOrDefault("TODO_PG_USER", "postgres"));
+            properties.put("spring.datasource.password", System.getenv().getOrDefault("TODO_PG_PASSWORD", "postgres"));
+        } else {
+            properties.put("spring.datasource.url", "jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        }
+        return properties;
+    }
+
+    private void seed(HttpClient client, String base) throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        LocalDate dueDate = LocalDate.now().plusDays(1);
+        String[] statuses = {"TODO", "IN_PROGRESS", "DONE"};
+        for (int i = 0; i < SEED_TASKS; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"op\":\"CREATE\",\"title\":\"Task ").append(i)
+                    .append("\",\"description\":\"Load\",\"dueDate\":\"").append(dueDate.plusDays(i % 365))
+                    .append("\",\"status\":\"").append(statuses[i % statuses.length]).append("\"}");
+        }
+        body.append(']');
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/batch"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+    }
+
+    //смесь чтений: задача по id и список по статусу; та же смесь в ReactiveTaskLoadBenchmarkTest модуля reactive
+    private Result load(String mode, HttpClient client, String base, int concurrency, int requests) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[requests];
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                futures.add(workers.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        URI uri = i % 2 == 0
+                                ? URI.create(base + "/" + (1 + i % SEED_TASKS))
+                                : URI.create(base + "?status=TODO");
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result(mode, concurrency, requests, errors.get(),
+                requests / (nanos / 1e9),
+                latencies[(int) Math.min(requests - 1, Math.ceil(requests * 0.50) - 1)] / 1e6,
+                latencies[(int) Math.min(requests - 1, Math.ceil(requests * 0.99) - 1)] / 1e6);
+    }
+
+    private record Result(String mode, int concurrency, int requests, int errors,
+                          double throughput, double p50Millis, double p99Millis) {
+        @Override
+        public String toString() {
+            return String.format("%s: concurrency=%d requests=%d errors=%d throughput=%.0f req/s p50=%.2f ms p99=%.2f ms",
+                    mode, concurrency, requests, errors, throughput, p50Millis, p99Millis);
+        }
+    }
+}
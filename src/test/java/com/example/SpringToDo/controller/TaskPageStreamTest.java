@@ -0,0 +1,44 @@
+package com.example.SpringToDo.controller;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskPageDTO;
+import com.example.SpringToDo.service.TaskService;
+import com.example.SpringToDo.service.TaskSort;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TaskPageStreamTest {
+
+    @Test
+    @DisplayName("Следующая страница читается только после отправки предыдущей")
+    void readsNextPageAfterFlush() {
+        TaskService taskService = mock(TaskService.class);
+        TaskDTO first = new TaskDTO();
+        first.setId(1);
+        TaskDTO second = new TaskDTO();
+        second.setId(2);
+        when(taskService.getTasksPage(null, TaskSort.ID, null, 1)).thenReturn(new TaskPageDTO(List.of(first), "N"));
+        when(taskService.getTasksPage(null, TaskSort.ID, "N", 1)).thenReturn(new TaskPageDTO(List.of(second), null));
+        AtomicInteger flushes = new AtomicInteger();
+
+        Iterator<TaskDTO> iterator = new TaskPageStream(taskService, TaskSort.ID, 1, flushes::incrementAndGet)
+                .iterator();
+
+        assertThat(iterator.next().getId()).isEqualTo(1);
+        verify(taskService, times(1)).getTasksPage(any(), any(), any(), anyInt());
+        assertThat(flushes).hasValue(0);
+
+        List<TaskDTO> rest = new ArrayList<>();
+        iterator.forEachRemaining(rest::add);
+        assertThat(rest).extracting(TaskDTO::getId).containsExactly(2);
+        assertThat(flushes).hasValue(1);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.SpringToDo.controller;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskPageDTO;
+import com.example.SpringToDo.mapper.TaskMapper;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.service.TaskService;
+import com.example.SpringToDo.service.TaskSort;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(WebController.class)
+class WebControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TaskService taskService;
+
+    @MockitoBean
+    private TaskMapper taskMapper;
+
+    @Test
+    @DisplayName("GET / - первая страница, ссылка на следующую сохраняет sort")
+    void index_paginatesAndKeepsSort() throws Exception {
+        when(taskService.getTasksPage(null, TaskSort.DUE_DATE, null, TaskController.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TaskPageDTO(tasks(1, 2), "CURSOR"));
+
+        mockMvc.perform(get("/").param("sort", "dueDate"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Task 2")))
+                .andExpect(content().string(containsString("sort=dueDate&amp;limit=50&amp;after=CURSOR")))
+                .andExpect(content().string(not(containsString("Первая страница"))));
+
+        verify(taskService, never()).getAllTasksSortedByDueDate();
+    }
+
+    @Test
+    @DisplayName("GET /?all=true - все задачи читаются страницами во время отрисовки")
+    void index_all_streamsPages() throws Exception {
+        when(taskService.getTasksPage(isNull(), eq(TaskSort.STATUS), isNull(), eq(WebController.STREAM_PAGE_SIZE)))
+                .thenReturn(new TaskPageDTO(tasks(1, 2), "SECOND"));
+        when(taskService.getTasksPage(isNull(), eq(TaskSort.STATUS), eq("SECOND"), anyInt()))
+                .thenReturn(new TaskPageDTO(tasks(3, 4), null));
+
+        String html = mockMvc.perform(get("/").param("sort", "status").param("all", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(html).contains("Task 1", "Task 4").doesNotContain("Следующая страница");
+        assertThat(html.indexOf("Task 1")).isLessThan(html.indexOf("Task 3"));
+        verify(taskService, never()).getAllTasksSortedByStatus();
+    }
+
+    private static List<TaskDTO> tasks(int from, int to) {
+        List<TaskDTO> tasks = new ArrayList<>();
+        for (int id = from; id <= to; id++) {
+            tasks.add(new TaskDTO(id, "Task " + id, "", LocalDate.now().plusDays(id), TaskStatus.TODO));
+        }
+        return tasks;
+    }
+}
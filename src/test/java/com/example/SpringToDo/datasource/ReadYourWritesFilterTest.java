@@ -0,0 +1,60 @@
+package com.example.SpringToDo.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+    private static final long NOW = 1_000_000;
+
+    private final ReadYourWritesFilter filter =
+            new ReadYourWritesFilter(10_000, Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+
+    @Test
+    @DisplayName("Запись ставит cookie со временем записи")
+    void writeSetsCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/tasks"), response, new MockFilterChain());
+
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getValue()).isEqualTo(Long.toString(NOW));
+        assertThat(cookie.getMaxAge()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Чтение сразу после записи идёт на основную базу, после окна — на реплику")
+    void readAfterWriteIsPinnedWithinWindow() throws Exception {
+        assertThat(pinnedDuringRequest("GET", NOW - 9_000)).isTrue();
+        assertThat(pinnedDuringRequest("GET", NOW - 11_000)).isFalse();
+        assertThat(pinnedDuringRequest("GET", null)).isFalse();
+        assertThat(pinnedDuringRequest("DELETE", null)).isTrue();
+        assertThat(ReplicaRoutingDataSource.isPinnedToPrimary()).isFalse();
+    }
+
+    private boolean pinnedDuringRequest(String method, Long lastWrite) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/tasks");
+        if (lastWrite != null) {
+            request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, lastWrite.toString()));
+        }
+        AtomicBoolean pinned = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                pinned.set(ReplicaRoutingDataSource.isPinnedToPrimary());
+            }
+        });
+        return pinned.get();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.SpringToDo.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+    private final DataSource primary = database("primary");
+    private final DataSource replica1 = database("replica-1");
+    private final DataSource replica2 = database("replica-2");
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        for (DataSource replica : List.of(replica1, replica2)) {
+            new JdbcTemplate(replica).execute("DELETE FROM replica_lag");
+            new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (0)");
+        }
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2), 1000,
+                "SELECT ms FROM replica_lag");
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    @Test
+    @DisplayName("Read-only транзакции идут на реплики по кругу, остальное — на основную базу")
+    void readOnlyTransactionsGoToReplicasRoundRobin() {
+        assertThat(List.of(readOnlyName(), readOnlyName(), readOnlyName(), readOnlyName()))
+                .containsExactly("replica-1", "replica-2", "replica-1", "replica-2");
+        assertThat(readWrite.execute(status -> name())).isEqualTo("primary");
+        assertThat(name()).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Закреплённый поток читает с основной базы")
+    void pinnedThreadReadsPrimary() {
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        assertThat(readOnlyName()).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Реплика с большим отставанием исключается до следующей проверки")
+    void laggingReplicaIsExcluded() {
+        new JdbcTemplate(replica1).update("UPDATE replica_lag SET ms = 5000");
+        routing.checkReplicas();
+
+        assertThat(routing.getHealthyReplicas()).containsExactly(1);
+        assertThat(List.of(readOnlyName(), readOnlyName())).containsOnly("replica-2");
+
+        new JdbcTemplate(replica2).update("UPDATE replica_lag SET ms = 5000");
+        routing.checkReplicas();
+        assertThat(readOnlyName()).isEqualTo("primary");
+
+        new JdbcTemplate(replica1).update("UPDATE replica_lag SET ms = 0");
+        routing.checkReplicas();
+        assertThat(readOnlyName()).isEqualTo("replica-1");
+    }
+
+    private String readOnlyName() {
+        return readOnly.execute(status -> name());
+    }
+
+    private String name() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(32))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS replica_lag (ms BIGINT)");
+        jdbcTemplate.execute("DELETE FROM marker");
+        jdbcTemplate.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.SpringToDo.datasource;
+
+import com.example.SpringToDo.dto.TaskCreateDTO;
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskPageDTO;
+import com.example.SpringToDo.exception.TaskNotFoundException;
+import com.example.SpringToDo.model.TaskRevision;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.service.Revisioned;
+import com.example.SpringToDo.service.TaskService;
+import com.example.SpringToDo.service.TaskServiceImpl;
+import com.example.SpringToDo.service.TaskSort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Три экземпляра H2: основная база со схемой от Hibernate и две "реплики", в которые тест пишет напрямую.
+ * Реплики не получают изменений основной базы, так что по данным видно, откуда прочитана задача.
+ * Кэш задач включён, как в приложении.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicas-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "todo.replicas.enabled=true",
+        "todo.replicas.urls[0].url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "todo.replicas.urls[1].url=" + ReplicaRoutingIntegrationTest.SECOND_REPLICA_URL,
+        "todo.replicas.lag-query="
+})
+class ReplicaRoutingIntegrationTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replicas-replica;DB_CLOSE_DELAY=-1";
+    static final String SECOND_REPLICA_URL = "jdbc:h2:mem:replicas-replica-2;DB_CLOSE_DELAY=-1";
+    private static final int REPLICA_ONLY_ID = 1_000_000;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private static final List<JdbcTemplate> REPLICAS = List.of(
+            new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "")),
+            new JdbcTemplate(new DriverManagerDataSource(SECOND_REPLICA_URL, "sa", "")));
+
+    //схема реплик нужна до старта контекста: статистика и поиск читают задачи при запуске
+    static {
+        for (JdbcTemplate replica : REPLICAS) {
+            replica.execute("CREATE TABLE IF NOT EXISTS task (id INT PRIMARY KEY, title VARCHAR(255), "
+                    + "description VARCHAR(255), due_date DATE, status VARCHAR(32), version BIGINT DEFAULT 0, "
+                    + "completed_at TIMESTAMP(6) WITH TIME ZONE)");
+            replica.execute("CREATE TABLE IF NOT EXISTS task_revision (id INT PRIMARY KEY, revision BIGINT)");
+        }
+    }
+
+    //реплики отличаются описанием задачи и ревизией: номер реплики в обоих
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < REPLICAS.size(); i++) {
+            JdbcTemplate replica = REPLICAS.get(i);
+            replica.update("DELETE FROM task");
+            replica.update("DELETE FROM task_revision");
+            replica.update("INSERT INTO task (id, title, description, due_date, status) VALUES (?, ?, ?, ?, ?)",
+                    REPLICA_ONLY_ID, "On replica", "replica-" + i, LocalDate.now().plusDays(1), "TODO");
+            replica.update("INSERT INTO task_revision (id, revision) VALUES (?, ?)", TaskRevision.ID, i);
+        }
+        cacheManager.getCache(TaskServiceImpl.TASKS_CACHE).clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    @Test
+    @DisplayName("Чтение идёт с реплики, запись — в основную базу")
+    void readsFromReplicaWritesToPrimary() {
+        assertThat(taskService.getTaskById(REPLICA_ONLY_ID).getTitle()).isEqualTo("On replica");
+
+        TaskDTO created = taskService.createTask(
+                new TaskCreateDTO("On primary", "", LocalDate.now().plusDays(1), TaskStatus.TODO));
+
+        for (JdbcTemplate replica : REPLICAS) {
+            assertThat(replica.queryForObject("SELECT COUNT(*) FROM task WHERE id = ?", Integer.class, created.getId()))
+                    .isZero();
+        }
+        assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(created.getId()));
+    }
+
+    @Test
+    @DisplayName("После записи закреплённый поток видит свою задачу")
+    void pinnedReadSeesOwnWrite() {
+        TaskDTO created = taskService.createTask(
+                new TaskCreateDTO("Own write", "", LocalDate.now().plusDays(1), TaskStatus.TODO));
+
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        assertThat(taskService.getTaskById(created.getId()).getTitle()).isEqualTo("Own write");
+        assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(REPLICA_ONLY_ID));
+    }
+
+    @Test
+    @DisplayName("Задача, прочитанная с отстающей реплики, не попадает в кэш и не мешает чтению своих записей")
+    void replicaReadIsNotCached() {
+        TaskDTO created = taskService.createTask(
+                new TaskCreateDTO("Fresh", "", LocalDate.now().plusDays(1), TaskStatus.TODO));
+        //реплики отстают: у них прежнее состояние задачи
+        for (JdbcTemplate replica : REPLICAS) {
+            replica.update("INSERT INTO task (id, title, description, due_date, status) VALUES (?, ?, ?, ?, ?)",
+                    created.getId(), "Stale", "", LocalDate.now().plusDays(1), "TODO");
+        }
+        Cache cache = cacheManager.getCache(TaskServiceImpl.TASKS_CACHE);
+
+        assertThat(taskService.getTaskById(created.getId()).getTitle()).isEqualTo("Stale");
+        assertThat(cache.get(created.getId())).isNull();
+
+        ReplicaRoutingDataSource.pinToPrimary();
+        assertThat(taskService.getTaskById(created.getId()).getTitle()).isEqualTo("Fresh");
+        assertThat(cache.get(created.getId(), TaskDTO.class).getTitle()).isEqualTo("Fresh");
+    }
+
+    @Test
+    @DisplayName("Ревизия для ETag и список читаются с одной реплики")
+    void listAndRevisionFromSameReplica() {
+        for (int i = 0; i < 4; i++) {
+            Revisioned<List<TaskDTO>> tasks = taskService.getTaskList(null, TaskSort.ID, false, revision -> false);
+            Revisioned<TaskPageDTO> page = taskService.getTasksPage(null, TaskSort.ID, null, 10, revision -> false);
+
+            assertThat(tasks.value()).extracting(TaskDTO::getDescription)
+                    .containsExactly("replica-" + tasks.revision());
+            assertThat(page.value().getItems()).extracting(TaskDTO::getDescription)
+                    .containsExactly("replica-" + page.revision());
+        }
+    }
+}
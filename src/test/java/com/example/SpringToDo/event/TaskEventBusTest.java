@@ -0,0 +1,104 @@
+package com.example.SpringToDo.event;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskEventBusTest {
+    private final TaskEventBus bus = new TaskEventBus(2);
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    @Test
+    @DisplayName("Подписчик получает события в порядке публикации")
+    void subscriber_receivesEvents() throws Exception {
+        RecordingSink sink = new RecordingSink(null);
+        bus.subscribe(sink);
+
+        bus.onTaskChanged(updated(1, "a"));
+        bus.onTaskChanged(updated(2, "b"));
+
+        assertThat(sink.received.poll(5, TimeUnit.SECONDS).getId()).isEqualTo(1);
+        assertThat(sink.received.poll(5, TimeUnit.SECONDS).getId()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Пока клиент занят, события по одной задаче схлопываются до последнего")
+    void slowSubscriber_coalescesEventsPerTask() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        bus.subscribe(sink);
+
+        bus.onTaskChanged(updated(1, "first"));
+        sink.sending.await(5, TimeUnit.SECONDS);
+        bus.onTaskChanged(updated(2, "old"));
+        bus.onTaskChanged(updated(2, "new"));
+        release.countDown();
+
+        assertThat(sink.received.poll(5, TimeUnit.SECONDS).getId()).isEqualTo(1);
+        TaskChangedEvent coalesced = sink.received.poll(5, TimeUnit.SECONDS);
+        assertThat(coalesced.getTask().getTitle()).isEqualTo("new");
+        assertThat(sink.received.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("Клиент с переполненным буфером отключается, публикация не блокируется")
+    void slowSubscriber_isDroppedWhenBufferFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        bus.subscribe(sink);
+
+        bus.onTaskChanged(updated(1, "a"));
+        sink.sending.await(5, TimeUnit.SECONDS);
+        bus.onTaskChanged(updated(2, "b"));
+        bus.onTaskChanged(updated(3, "c"));
+        bus.onTaskChanged(updated(4, "d"));
+
+        assertThat(sink.closed).isTrue();
+        assertThat(bus.getSubscriberCount()).isZero();
+        release.countDown();
+    }
+
+    private static TaskChangedEvent updated(int id, String title) {
+        return new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, id,
+                new TaskDTO(id, title, "", LocalDate.now().plusDays(1), TaskStatus.TODO));
+    }
+
+    private static class RecordingSink implements TaskEventBus.Sink {
+        private final CountDownLatch release;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final BlockingQueue<TaskChangedEvent> received = new LinkedBlockingQueue<>();
+        private volatile boolean closed;
+
+        RecordingSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(TaskChangedEvent event) throws Exception {
+            sending.countDown();
+            if (release != null) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            received.add(event);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
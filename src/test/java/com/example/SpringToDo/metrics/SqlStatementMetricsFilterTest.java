@@ -0,0 +1,49 @@
+package com.example.SpringToDo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementMetricsFilterTest {
+
+    @Test
+    @DisplayName("Фильтр записывает число SQL-операторов запроса с шаблоном uri")
+    void recordsStatementsPerRequest() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(registry);
+        SqlStatementCounter inspector = new SqlStatementCounter();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/7");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                inspector.inspect("select 1");
+                inspector.inspect("select 2");
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/tasks/{id}");
+            }
+        });
+
+        DistributionSummary summary = registry.get(SqlStatementMetricsFilter.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/api/v1/tasks/{id}")
+                .summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Вне запроса счётчик не копит операторы")
+    void inspectorOutsideRequestIsNoop() {
+        SqlStatementCounter inspector = new SqlStatementCounter();
+
+        assertThat(inspector.inspect("select 1")).isEqualTo("select 1");
+        assertThat(SqlStatementCounter.stop()).isZero();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.SpringToDo.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdmissionControlFilter filter(AdmissionProperties.Limit read, AdmissionProperties.Limit heavy) {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setRead(read);
+        properties.setHeavy(heavy);
+        properties.setClientHeader("X-Api-Key");
+        return new AdmissionControlFilter(properties, meterRegistry);
+    }
+
+    private static MockHttpServletRequest request(String uri, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("X-Api-Key", client);
+        return request;
+    }
+
+    private double rejected(String endpointClass, String reason) {
+        return meterRegistry.get(AdmissionControlFilter.REJECTED_METRIC)
+                .tag("class", endpointClass).tag("reason", reason).counter().count();
+    }
+
+    @Test
+    @DisplayName("Запросы классифицируются по пути и параметрам")
+    void classification() {
+        assertThat(EndpointClass.of(new MockHttpServletRequest("GET", "/api/v1/tasks"))).isEqualTo(EndpointClass.HEAVY);
+        MockHttpServletRequest page = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        page.setParameter("limit", "50");
+        assertThat(EndpointClass.of(page)).isEqualTo(EndpointClass.READ);
+        assertThat(EndpointClass.of(new MockHttpServletRequest("GET", "/api/v1/tasks/export"))).isEqualTo(EndpointClass.HEAVY);
+        assertThat(EndpointClass.of(new MockHttpServletRequest("GET", "/api/v1/tasks/7"))).isEqualTo(EndpointClass.READ);
+        assertThat(EndpointClass.of(new MockHttpServletRequest("DELETE", "/api/v1/tasks/7"))).isEqualTo(EndpointClass.WRITE);
+    }
+
+    @Test
+    @DisplayName("Пустая корзина клиента даёт 429 с Retry-After, другие клиенты и классы не страдают")
+    void rateLimitPerClientAndClass() throws Exception {
+        AdmissionControlFilter filter = filter(new AdmissionProperties.Limit(10, 100, 0, 0),
+                new AdmissionProperties.Limit(2, 0.01, 0, 0));
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse ok = new MockHttpServletResponse();
+            filter.doFilter(request("/api/v1/tasks", "alice"), ok, new MockFilterChain());
+            assertThat(ok.getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        MockFilterChain notCalled = new MockFilterChain();
+        filter.doFilter(request("/api/v1/tasks", "alice"), limited, notCalled);
+
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("100");
+        assertThat(notCalled.getRequest()).isNull();
+        assertThat(rejected("heavy", "rate")).isEqualTo(1);
+
+        MockHttpServletResponse cheap = new MockHttpServletResponse();
+        filter.doFilter(request("/api/v1/tasks/1", "alice"), cheap, new MockFilterChain());
+        assertThat(cheap.getStatus()).isEqualTo(200);
+        MockHttpServletResponse otherClient = new MockHttpServletResponse();
+        filter.doFilter(request("/api/v1/tasks", "bob"), otherClient, new MockFilterChain());
+        assertThat(otherClient.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Сверх max-concurrent тяжёлый запрос получает 503, место освобождается после ответа")
+    void concurrencyLimit() throws Exception {
+        AdmissionControlFilter filter = filter(new AdmissionProperties.Limit(100, 100, 0, 0),
+                new AdmissionProperties.Limit(100, 100, 1, 0));
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>(new MockHttpServletResponse());
+        AtomicReference<MockHttpServletResponse> nestedCheap = new AtomicReference<>(new MockHttpServletResponse());
+
+        //пока первый тяжёлый запрос выполняется, второй не допускается, а дешёвый проходит
+        filter.doFilter(request("/api/v1/tasks", "alice"), new MockHttpServletResponse(), (req, res) -> {
+            filter.doFilter(request("/api/v1/tasks/search", "bob"), nested.get(), new MockFilterChain());
+            filter.doFilter(request("/api/v1/tasks/1", "bob"), nestedCheap.get(), new MockFilterChain());
+        });
+
+        assertThat(nested.get().getStatus()).isEqualTo(503);
+        assertThat(nested.get().getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(nestedCheap.get().getStatus()).isEqualTo(200);
+        assertThat(rejected("heavy", "concurrency")).isEqualTo(1);
+
+        MockHttpServletResponse after = new MockHttpServletResponse();
+        filter.doFilter(request("/api/v1/tasks", "bob"), after, new MockFilterChain());
+        assertThat(after.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Асинхронная выгрузка держит место до завершения ответа")
+    void asyncRequestHoldsSlotUntilComplete() throws Exception {
+        AdmissionControlFilter filter = filter(new AdmissionProperties.Limit(100, 100, 0, 0),
+                new AdmissionProperties.Limit(100, 100, 1, 0));
+        MockHttpServletRequest export = request("/api/v1/tasks/export", "alice");
+        export.setAsyncSupported(true);
+        MockHttpServletResponse exportResponse = new MockHttpServletResponse();
+
+        filter.doFilter(export, exportResponse, (req, res) -> req.startAsync());
+        MockHttpServletResponse whileStreaming = new MockHttpServletResponse();
+        filter.doFilter(request("/api/v1/tasks", "bob"), whileStreaming, new MockFilterChain());
+        assertThat(whileStreaming.getStatus()).isEqualTo(503);
+        assertThat(meterRegistry.get(AdmissionControlFilter.IN_FLIGHT_METRIC).tag("class", "heavy").gauge().value())
+                .isEqualTo(1);
+
+        ((MockAsyncContext) export.getAsyncContext()).complete();
+        MockHttpServletResponse afterComplete = new MockHttpServletResponse();
+        filter.doFilter(request("/api/v1/tasks", "bob"), afterComplete, new MockFilterChain());
+        assertThat(afterComplete.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Запросы вне /api/v1/tasks не ограничиваются")
+    void otherPathsAreNotLimited() throws Exception {
+        AdmissionControlFilter filter = filter(new AdmissionProperties.Limit(1, 0.01, 0, 0),
+                new AdmissionProperties.Limit(1, 0.01, 0, 0));
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request("/actuator/health", "alice"), response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.SpringToDo.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenBucketTest {
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("Выдаёт capacity токенов подряд, затем говорит, сколько ждать")
+    void burstThenWait() {
+        TokenBucket bucket = new TokenBucket(3, 10, now::get);
+
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    @DisplayName("Пополняется со скоростью refillPerSecond и не копит больше capacity")
+    void refill() {
+        TokenBucket bucket = new TokenBucket(2, 10, now::get);
+        bucket.tryAcquire();
+        bucket.tryAcquire();
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Параллельные потоки не получают больше capacity токенов")
+    void concurrentAcquire() throws Exception {
+        TokenBucket bucket = new TokenBucket(1_000, 0.001, now::get);
+        AtomicInteger granted = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        if (bucket.tryAcquire() == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(granted.get()).isEqualTo(1_000);
+    }
+
+    @Test
+    @DisplayName("Нулевая ёмкость или скорость — ошибка конфигурации")
+    void invalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 0));
+    }
+}
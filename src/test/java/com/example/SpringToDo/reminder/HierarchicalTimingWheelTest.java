@@ -0,0 +1,88 @@
+package com.example.SpringToDo.reminder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HierarchicalTimingWheelTest {
+
+    private static final class TestTimer extends HierarchicalTimingWheel.Timer {
+        private final long deadline;
+        private long firedAt = -1;
+
+        private TestTimer(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+
+    //колесо 8 ячеек x 3 уровня по 10 мс: 80 мс, 640 мс и 5.12 с
+    private final HierarchicalTimingWheel<TestTimer> wheel = new HierarchicalTimingWheel<>(10, 8, 3, 0);
+
+    private List<TestTimer> advance(long from, long to) {
+        List<TestTimer> fired = new ArrayList<>();
+        for (long now = from; now <= to; now += 10) {
+            long at = now;
+            wheel.advanceTo(now, timer -> {
+                timer.firedAt = at;
+                fired.add(timer);
+            });
+        }
+        return fired;
+    }
+
+    @Test
+    @DisplayName("Таймеры всех уровней и дальше диапазона срабатывают на первом тике не раньше срока")
+    void firesEachTimerAtItsDeadline() {
+        Random random = new Random(42);
+        List<TestTimer> timers = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            TestTimer timer = new TestTimer(1 + random.nextInt(12_000));
+            wheel.schedule(timer, timer.deadline);
+            timers.add(timer);
+        }
+
+        List<TestTimer> fired = advance(10, 13_000);
+
+        assertThat(fired).hasSize(timers.size());
+        assertThat(wheel.size()).isZero();
+        for (TestTimer timer : timers) {
+            assertThat(timer.firedAt).isGreaterThanOrEqualTo(timer.deadline).isLessThan(timer.deadline + 10);
+        }
+    }
+
+    @Test
+    @DisplayName("Отменённый таймер не срабатывает, прошедший срок — на ближайшем тике")
+    void cancelAndPastDeadline() {
+        TestTimer cancelled = new TestTimer(500);
+        TestTimer past = new TestTimer(-1_000);
+        wheel.schedule(cancelled, cancelled.deadline);
+        wheel.schedule(past, past.deadline);
+
+        assertThat(wheel.cancel(cancelled)).isTrue();
+        assertThat(wheel.cancel(cancelled)).isFalse();
+
+        assertThat(advance(10, 1_000)).containsExactly(past);
+        assertThat(past.firedAt).isEqualTo(10);
+        assertThat(cancelled.firedAt).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Сработавший таймер можно поставить снова, поставленный повторно — нельзя")
+    void reschedule() {
+        TestTimer timer = new TestTimer(50);
+        wheel.schedule(timer, 50);
+        assertThrows(IllegalStateException.class, () -> wheel.schedule(timer, 60));
+
+        advance(10, 50);
+        wheel.schedule(timer, 3_000);
+
+        assertThat(advance(60, 3_000)).containsExactly(timer);
+        assertThat(timer.firedAt).isEqualTo(3_000);
+    }
+}
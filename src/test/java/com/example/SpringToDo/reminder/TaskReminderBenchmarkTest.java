@@ -0,0 +1,88 @@
+package com.example.SpringToDo.reminder;
+
+import com.example.SpringToDo.dto.TaskStatsEntryDTO;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Память колеса напоминаний на миллион ожидающих задач и стоимость постановки и отмены.
+ * Запуск: ./gradlew benchmark --tests '*TaskReminderBenchmarkTest' -Dbenchmark.reminders=1000000
+ */
+@Tag("benchmark")
+class TaskReminderBenchmarkTest {
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    @Test
+    @DisplayName("Память и время постановки и отмены напоминаний")
+    void memoryAndOperations() throws Exception {
+        int count = Integer.getInteger("benchmark.reminders", 1_000_000);
+        LocalDate today = LocalDate.now();
+        //ссылка на список только через holder: заглушка Mockito удерживала бы его после загрузки
+        AtomicReference<List<TaskStatsEntryDTO>> database = new AtomicReference<>();
+        TaskRepository repository = mock(TaskRepository.class);
+        when(repository.findStatsEntries()).thenAnswer(i -> database.get());
+        TaskReminderScheduler scheduler = new TaskReminderScheduler(repository, List.of(), new SimpleMeterRegistry(),
+                Clock.systemDefaultZone(), Duration.ofHours(24), 1000);
+
+        long baseline = usedHeap();
+        List<TaskStatsEntryDTO> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new TaskStatsEntryDTO(i + 1, TaskStatus.TODO, today.plusDays(1 + i % 365), 0L));
+        }
+        database.set(entries);
+        entries = null;
+
+        long loadStart = System.nanoTime();
+        scheduler.load();
+        long loadNanos = System.nanoTime() - loadStart;
+        //список из базы больше не нужен: остаются только узлы колеса и карта по id
+        database.set(null);
+        long wheelBytes = usedHeap() - baseline;
+        assertThat(scheduler.getPendingCount()).isEqualTo(count);
+
+        //повторная постановка существующей задачи: отмена старого таймера и постановка нового
+        List<TaskStatsEntryDTO> moved = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            moved.add(new TaskStatsEntryDTO(i + 1, TaskStatus.TODO, today.plusDays(2 + i % 365), 1L));
+        }
+        database.set(moved);
+        long rescheduleStart = System.nanoTime();
+        scheduler.load();
+        long rescheduleNanos = System.nanoTime() - rescheduleStart;
+
+        long tickStart = System.nanoTime();
+        scheduler.tick();
+        long tickNanos = System.nanoTime() - tickStart;
+        scheduler.shutdown();
+
+        System.out.printf("reminders: pending=%d load=%d ms; per 1M reminders %.0f MB (%.0f bytes each); "
+                        + "reschedule %.0f ns/op; idle tick %.3f ms%n",
+                count, loadNanos / 1_000_000, wheelBytes * (1_000_000.0 / count) / (1024 * 1024),
+                (double) wheelBytes / count, (double) rescheduleNanos / count, tickNanos / 1e6);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.SpringToDo.reminder;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskStatsEntryDTO;
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TaskReminderSchedulerTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+
+    private final MutableClock clock = new MutableClock(TODAY.atTime(12, 0).toInstant(ZoneOffset.UTC));
+    private final TaskRepository repository = mock(TaskRepository.class);
+    private final BlockingQueue<TaskReminder> received = new LinkedBlockingQueue<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TaskReminderScheduler scheduler = new TaskReminderScheduler(repository,
+            List.<ReminderSink>of(received::addAll), meterRegistry, clock, Duration.ofHours(24), 1000);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    private List<TaskReminder> tickAt(LocalDate day, int hour) throws InterruptedException {
+        clock.instant = day.atTime(hour, 0).toInstant(ZoneOffset.UTC);
+        scheduler.tick();
+        List<TaskReminder> reminders = new ArrayList<>();
+        TaskReminder reminder = received.poll(200, TimeUnit.MILLISECONDS);
+        while (reminder != null) {
+            reminders.add(reminder);
+            reminder = received.poll(50, TimeUnit.MILLISECONDS);
+        }
+        return reminders;
+    }
+
+    private static TaskChangedEvent changed(int id, LocalDate dueDate, TaskStatus status, long version) {
+        return new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, id,
+                new TaskDTO(id, "Task " + id, "", dueDate, status, version));
+    }
+
+    @Test
+    @DisplayName("При старте планируются только незавершённые задачи с ненаступившими напоминаниями")
+    void load_schedulesOpenTasks() throws Exception {
+        when(repository.findStatsEntries()).thenReturn(List.of(
+                new TaskStatsEntryDTO(1, TaskStatus.TODO, TODAY.plusDays(2), 0L),
+                new TaskStatsEntryDTO(2, TaskStatus.DONE, TODAY.plusDays(2), 0L),
+                new TaskStatsEntryDTO(3, TaskStatus.TODO, TODAY.minusDays(1), 0L),
+                new TaskStatsEntryDTO(4, TaskStatus.IN_PROGRESS, TODAY, 0L)));
+
+        scheduler.load();
+
+        assertThat(scheduler.getPendingCount()).isEqualTo(2);
+        //для задачи на сегодня окно DUE_SOON уже началось, остаётся только OVERDUE в конце дня
+        assertThat(tickAt(TODAY.plusDays(1), 0)).singleElement().satisfies(reminder -> {
+            assertThat(reminder.getTaskId()).isEqualTo(4);
+            assertThat(reminder.getType()).isEqualTo(TaskReminder.Type.OVERDUE);
+            assertThat(reminder.getDueDate()).isEqualTo(TODAY);
+        });
+        assertThat(tickAt(TODAY.plusDays(2), 0)).extracting(TaskReminder::getTaskId, TaskReminder::getType)
+                .containsExactly(tuple(1, TaskReminder.Type.DUE_SOON));
+        assertThat(tickAt(TODAY.plusDays(3), 0)).extracting(TaskReminder::getType)
+                .containsExactly(TaskReminder.Type.OVERDUE);
+        assertThat(scheduler.getPendingCount()).isZero();
+        assertThat(meterRegistry.get(TaskReminderScheduler.SENT_METRIC).tag("type", "overdue").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Изменение срока переносит напоминание, выполнение и удаление — отменяют")
+    void events_rescheduleAndCancel() throws Exception {
+        when(repository.findStatsEntries()).thenReturn(List.of());
+        scheduler.load();
+
+        scheduler.onTaskChanged(changed(1, TODAY.plusDays(1), TaskStatus.TODO, 0));
+        scheduler.onTaskChanged(changed(2, TODAY.plusDays(1), TaskStatus.TODO, 0));
+        scheduler.onTaskChanged(changed(3, TODAY.plusDays(1), TaskStatus.TODO, 0));
+        scheduler.onTaskChanged(changed(1, TODAY.plusDays(5), TaskStatus.TODO, 1));
+        scheduler.onTaskChanged(changed(2, TODAY.plusDays(1), TaskStatus.DONE, 1));
+        scheduler.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, 3, null, 0L));
+
+        assertThat(scheduler.getPendingCount()).isEqualTo(1);
+        assertThat(tickAt(TODAY.plusDays(3), 0)).isEmpty();
+        assertThat(tickAt(TODAY.plusDays(5), 1)).extracting(TaskReminder::getTaskId, TaskReminder::getType)
+                .containsExactly(tuple(1, TaskReminder.Type.DUE_SOON));
+    }
+
+    @Test
+    @DisplayName("Запоздавшее событие со старой версией не переносит напоминание и не возвращает снятое")
+    void events_ignoreStaleVersions() throws Exception {
+        when(repository.findStatsEntries()).thenReturn(List.of());
+        scheduler.load();
+
+        scheduler.onTaskChanged(changed(1, TODAY.plusDays(5), TaskStatus.TODO, 2));
+        scheduler.onTaskChanged(changed(1, TODAY.plusDays(1), TaskStatus.TODO, 1));
+        scheduler.onTaskChanged(changed(2, TODAY.plusDays(1), TaskStatus.DONE, 2));
+        scheduler.onTaskChanged(changed(2, TODAY.plusDays(1), TaskStatus.TODO, 1));
+        scheduler.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, 3, null, 1L));
+        scheduler.onTaskChanged(changed(3, TODAY.plusDays(1), TaskStatus.TODO, 1));
+
+        assertThat(scheduler.getPendingCount()).isEqualTo(1);
+        assertThat(tickAt(TODAY.plusDays(3), 0)).isEmpty();
+        assertThat(tickAt(TODAY.plusDays(5), 1)).extracting(TaskReminder::getTaskId).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Пачки напоминаний уходят получателю по одной, в порядке срабатывания")
+    void tick_deliversBatchesInOrder() throws Exception {
+        BlockingQueue<Instant> delivered = new LinkedBlockingQueue<>();
+        TaskReminderScheduler ordered = new TaskReminderScheduler(repository, List.<ReminderSink>of(reminders -> {
+            //медленный получатель: следующая пачка не должна его обогнать
+            Thread.sleep(20);
+            reminders.forEach(reminder -> delivered.add(reminder.getFiredAt()));
+        }), new SimpleMeterRegistry(), clock, Duration.ofHours(24), 1000);
+        List<Instant> firedAt = new ArrayList<>();
+        try {
+            when(repository.findStatsEntries()).thenReturn(List.of());
+            ordered.load();
+            for (int i = 1; i <= 5; i++) {
+                ordered.onTaskChanged(changed(i, TODAY.plusDays(2 * i), TaskStatus.TODO, 0));
+            }
+            //каждый тик: DUE_SOON задачи i и OVERDUE задачи i - 1
+            for (int i = 1; i <= 5; i++) {
+                clock.instant = TODAY.plusDays(2 * i).atTime(12, 0).toInstant(ZoneOffset.UTC);
+                ordered.tick();
+            }
+            for (int i = 0; i < 9; i++) {
+                firedAt.add(delivered.poll(2, TimeUnit.SECONDS));
+            }
+        } finally {
+            ordered.shutdown();
+        }
+
+        assertThat(firedAt).doesNotContainNull().isSorted();
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
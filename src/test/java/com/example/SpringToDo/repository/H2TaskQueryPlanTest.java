@@ -0,0 +1,18 @@
+package com.example.SpringToDo.repository;
+
+import java.util.List;
+
+class H2TaskQueryPlanTest extends TaskQueryPlanTest {
+
+    @Override
+    protected String explain(String sql) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        return String.join("\n", plan);
+    }
+
+    //DEFAULT_NULL_ORDERING=LOW: возрастающий индекс отдаёт NULL первыми
+    @Override
+    protected boolean indexSortsNullsLast() {
+        return false;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.SpringToDo.repository;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+/**
+ * Запускается только при заданной переменной TODO_PG_URL, например
+ * TODO_PG_URL=jdbc:postgresql://localhost:5432/springtodo_test.
+ */
+@EnabledIfEnvironmentVariable(named = "TODO_PG_URL", matches = ".+")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=${TODO_PG_URL}",
+        "spring.datasource.username=${TODO_PG_USER:postgres}",
+        "spring.datasource.password=${TODO_PG_PASSWORD:postgres}",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class PostgresTaskQueryPlanTest extends TaskQueryPlanTest {
+
+    @Override
+    protected String explain(String sql) {
+        //на паре сотен строк планировщик предпочтёт seq scan, поэтому запрещаем его в рамках транзакции теста
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        return String.join("\n", plan);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.SpringToDo.repository;
+
+import com.example.SpringToDo.model.Task;
+import com.example.SpringToDo.model.TaskStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Проверяет, что запросы фильтрации и сортировки идут через индексы из {@link Task}.
+ * План строится для SQL, который Hibernate выдаёт на вызов репозитория, а не для написанного вручную.
+ * Наследники задают базу: встроенная H2 или PostgreSQL.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.SpringToDo.repository.TaskQueryPlanTest$IssuedSql")
+abstract class TaskQueryPlanTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    protected JdbcTemplate jdbcTemplate;
+
+    /**
+     * Запоминает SQL, который Hibernate готовит в текущем потоке, между {@link #start()} и {@link #stop()} —
+     * как SqlStatementCounter, только с текстом операторов.
+     */
+    public static class IssuedSql implements StatementInspector {
+        private static final ThreadLocal<List<String>> ISSUED = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> issued = ISSUED.get();
+            if (issued != null) {
+                issued.add(sql);
+            }
+            return sql;
+        }
+
+        static void start() {
+            ISSUED.set(new ArrayList<>());
+        }
+
+        static List<String> stop() {
+            List<String> issued = ISSUED.get();
+            ISSUED.remove();
+            return issued != null ? issued : List.of();
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Task> tasks = new ArrayList<>();
+        TaskStatus[] statuses = TaskStatus.values();
+        for (int i = 0; i < 300; i++) {
+            tasks.add(new Task(0, "Task " + i, "", LocalDate.now().plusDays(i % 60), statuses[i % statuses.length]));
+        }
+        taskRepository.saveAllAndFlush(tasks);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    protected abstract String explain(String sql);
+
+    //false — если возрастающий индекс не отдаёт строки в порядке "nulls last" и полный список сортируется отдельно
+    protected boolean indexSortsNullsLast() {
+        return true;
+    }
+
+    @Test
+    @DisplayName("Фильтр по статусу использует индекс по status")
+    void filterByStatus_usesStatusIndex() {
+        String plan = explainIssued(() -> taskRepository.findDtosByStatus(TaskStatus.TODO), TaskStatus.TODO);
+
+        assertThat(plan.toLowerCase()).contains("idx_task_status");
+    }
+
+    @Test
+    @DisplayName("Страница по статусу с сортировкой по сроку использует составной индекс")
+    void pageByStatusSortedByDueDate_usesCompositeIndex() {
+        LocalDate dueDate = LocalDate.now().plusDays(30);
+        String plan = explainIssued(() -> taskRepository.findKeysetPageByStatusAfterDueDate(
+                        TaskStatus.TODO, dueDate, 0, PageRequest.ofSize(20)),
+                TaskStatus.TODO, dueDate, dueDate, 0, 20);
+
+        assertThat(plan.toLowerCase()).contains("idx_task_status_due_date");
+    }
+
+    @Test
+    @DisplayName("Диапазон по сроку выполнения использует индекс по due_date")
+    void dueDateRange_usesDueDateIndex() {
+        LocalDate from = LocalDate.now().plusDays(10);
+        LocalDate before = LocalDate.now().plusDays(12);
+        String plan = explainIssued(() -> taskRepository.findDtosDueBetween(null, from, before, PageRequest.ofSize(20)),
+                null, null, from, from, before, before, 20);
+
+        assertThat(plan.toLowerCase()).contains("idx_task_due_date");
+    }
+
+    @Test
+    @DisplayName("Полный список по сроку выполнения читается в порядке индекса по due_date")
+    void allSortedByDueDate_usesDueDateIndex() {
+        assumeTrue(indexSortsNullsLast());
+
+        String plan = explainIssued(() -> taskRepository.findDtosOrderByDueDate());
+
+        assertThat(plan.toLowerCase()).contains("idx_task_due_date");
+    }
+
+    //вызывает репозиторий и строит план единственного выданного им SELECT; значения параметров подставляются
+    //литералами в порядке "?" — план строится под конкретные значения, как custom plan в PostgreSQL
+    private String explainIssued(Runnable query, Object... parameters) {
+        List<String> issued;
+        IssuedSql.start();
+        try {
+            query.run();
+        } finally {
+            issued = IssuedSql.stop();
+        }
+        assertThat(issued).hasSize(1);
+        return explain(inline(issued.get(0), parameters));
+    }
+
+    private static String inline(String sql, Object... parameters) {
+        String[] parts = sql.split("\\?", -1);
+        assertThat(parts.length - 1).as("parameters in %s", sql).isEqualTo(parameters.length);
+        StringBuilder result = new StringBuilder(parts[0]);
+        for (int i = 0; i < parameters.length; i++) {
+            result.append(literal(parameters[i])).append(parts[i + 1]);
+        }
+        return result.toString();
+    }
+
+    private static String literal(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        if (value instanceof LocalDate date) {
+            return "DATE '" + date + "'";
+        }
+        return "'" + (value instanceof Enum<?> e ? e.name() : value) + "'";
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.SpringToDo.repository;
 
+import com.example.SpringToDo.dto.TaskDTO;
 import com.example.SpringToDo.model.Task;
 import com.example.SpringToDo.model.TaskStatus;
+import org.hibernate.Session;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +24,9 @@ public class TaskRepositoryTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     @DisplayName("Сохранение и поиск задачи в репозитории")
     void saveAndFindTask() {
@@ -98,11 +106,96 @@ public class TaskRepositoryTest {
         taskRepository.save(task1);
         taskRepository.save(task2);
 
-        List<Task> todoTasks = taskRepository.findAll().stream()
-                .filter(t -> t.getStatus() == TaskStatus.TODO)
-                .toList();
+        List<TaskDTO> todoTasks = taskRepository.findDtosByStatus(TaskStatus.TODO);
 
         assertThat(todoTasks).hasSize(1);
         assertThat(todoTasks.get(0).getTitle()).isEqualTo("Task1");
     }
+
+    @Test
+    @DisplayName("Keyset-страницы по сроку выполнения идут без пропусков и повторов")
+    void keysetPagesByDueDate() {
+        LocalDate sameDay = LocalDate.now().plusDays(3);
+        Task first = taskRepository.save(new Task(0, "A", "", sameDay, TaskStatus.TODO));
+        Task second = taskRepository.save(new Task(0, "B", "", sameDay, TaskStatus.DONE));
+        Task third = taskRepository.save(new Task(0, "C", "", sameDay.plusDays(1), TaskStatus.TODO));
+
+        List<TaskDTO> firstPage = taskRepository.findKeysetPageOrderByDueDate(PageRequest.ofSize(2));
+        TaskDTO last = firstPage.get(firstPage.size() - 1);
+        List<TaskDTO> secondPage = taskRepository.findKeysetPageAfterDueDate(
+                last.getDueDate(), last.getId(), PageRequest.ofSize(2));
+
+        assertThat(firstPage).extracting(TaskDTO::getId).containsExactly(first.getId(), second.getId());
+        assertThat(secondPage).extracting(TaskDTO::getId).containsExactly(third.getId());
+    }
+
+    @Test
+    @DisplayName("Keyset-страницы по сроку выполнения отдают задачи без срока последними")
+    void keysetPagesByDueDate_withoutDueDateLast() {
+        Task firstUndated = taskRepository.save(new Task(0, "A", "", null, TaskStatus.TODO));
+        Task dated = taskRepository.save(new Task(0, "B", "", LocalDate.now().plusDays(3), TaskStatus.TODO));
+        Task secondUndated = taskRepository.save(new Task(0, "C", "", null, TaskStatus.TODO));
+
+        List<TaskDTO> firstPage = taskRepository.findKeysetPageOrderByDueDate(PageRequest.ofSize(2));
+        List<TaskDTO> afterDated = taskRepository.findKeysetPageAfterDueDate(
+                dated.getDueDate(), dated.getId(), PageRequest.ofSize(2));
+        List<TaskDTO> secondPage = taskRepository.findKeysetPageWithoutDueDate(
+                firstPage.get(1).getId(), PageRequest.ofSize(2));
+
+        assertThat(firstPage).extracting(TaskDTO::getId).containsExactly(dated.getId(), firstUndated.getId());
+        assertThat(afterDated).isEmpty();
+        assertThat(secondPage).extracting(TaskDTO::getId).containsExactly(secondUndated.getId());
+    }
+
+    @Test
+    @DisplayName("Проекция в TaskDTO не кладёт сущности в контекст персистентности")
+    void findDtoById_doesNotManageEntities() {
+        Task task = taskRepository.saveAndFlush(new Task(0, "Projected", "Desc", LocalDate.now().plusDays(1), TaskStatus.TODO));
+        entityManager.clear();
+
+        Optional<TaskDTO> dto = taskRepository.findDtoById(task.getId());
+
+        assertThat(dto).isPresent();
+        assertThat(dto.get().getTitle()).isEqualTo("Projected");
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        assertThat(session.getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Условный UPDATE срабатывает только при совпадении версии")
+    void updateIfVersionMatches_checksVersion() {
+        Task task = taskRepository.saveAndFlush(new Task(0, "Versioned", "Desc", LocalDate.now().plusDays(1), TaskStatus.TODO));
+        long version = task.getVersion();
+        entityManager.clear();
+
+        int stale = taskRepository.updateIfVersionMatches(task.getId(), version + 1,
+                "Stale", "Desc", task.getDueDate(), TaskStatus.DONE, Instant.now());
+        int applied = taskRepository.updateIfVersionMatches(task.getId(), version,
+                "Fresh", "Desc", task.getDueDate(), TaskStatus.DONE, Instant.now());
+
+        assertThat(stale).isZero();
+        assertThat(applied).isEqualTo(1);
+        assertThat(taskRepository.findDtoById(task.getId()))
+                .get()
+                .satisfies(dto -> {
+                    assertThat(dto.getTitle()).isEqualTo("Fresh");
+                    assertThat(dto.getVersion()).isEqualTo(version + 1);
+                });
+    }
+
+    @Test
+    @DisplayName("UPDATE ставит completedAt при переходе в DONE, не сдвигает его у выполненной и снимает при возврате")
+    void update_tracksCompletedAt() {
+        Task task = taskRepository.saveAndFlush(new Task(0, "Completed", "", LocalDate.now().plusDays(1), TaskStatus.TODO));
+        Instant doneAt = Instant.parse("2025-01-01T10:00:00Z");
+
+        taskRepository.updateLatest(task.getId(), "Completed", "", task.getDueDate(), TaskStatus.DONE, doneAt);
+        taskRepository.updateLatest(task.getId(), "Renamed", "", task.getDueDate(), TaskStatus.DONE, doneAt.plusSeconds(60));
+        entityManager.clear();
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getCompletedAt()).isEqualTo(doneAt);
+
+        taskRepository.updateLatest(task.getId(), "Renamed", "", task.getDueDate(), TaskStatus.TODO, doneAt.plusSeconds(120));
+        entityManager.clear();
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getCompletedAt()).isNull();
+    }
 }
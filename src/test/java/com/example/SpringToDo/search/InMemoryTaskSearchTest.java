@@ -0,0 +1,108 @@
+package com.example.SpringToDo.search;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryTaskSearchTest {
+    private static final LocalDate DUE = LocalDate.now().plusDays(1);
+
+    private InMemoryTaskSearch search;
+
+    @BeforeEach
+    void setUp() {
+        TaskRepository repository = mock(TaskRepository.class);
+        when(repository.findAllDtos()).thenReturn(List.of(
+                task(1, "Купить молоко", "в магазине у дома", 0),
+                task(2, "Молоко, молоко, молоко", "проверить срок годности", 0),
+                task(3, "Позвонить маме", "", 0)));
+        search = new InMemoryTaskSearch(repository);
+        search.rebuild();
+    }
+
+    @Test
+    @DisplayName("Результаты упорядочены по релевантности, все слова запроса обязательны")
+    void search_ranksByRelevance() {
+        assertThat(search.search("молоко", 0, 10)).extracting(TaskDTO::getId).containsExactly(2, 1);
+        assertThat(search.search("купить МОЛОКО", 0, 10)).extracting(TaskDTO::getId).containsExactly(1);
+        assertThat(search.search("молоко маме", 0, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Смещение и лимит режут упорядоченный список")
+    void search_appliesOffsetAndLimit() {
+        assertThat(search.search("молоко", 1, 1)).extracting(TaskDTO::getId).containsExactly(1);
+        assertThat(search.search("молоко", 2, 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Индекс следует за созданием, изменением и удалением задач")
+    void onTaskChanged_keepsIndexInSync() {
+        search.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, 4, task(4, "Купить хлеб", "", 0)));
+        search.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 1, task(1, "Купить кефир", "", 1)));
+        search.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, 2, null));
+
+        assertThat(search.search("купить", 0, 10)).extracting(TaskDTO::getId).containsExactly(1, 4);
+        assertThat(search.search("молоко", 0, 10)).isEmpty();
+        assertThat(search.search("кефир", 0, 10)).extracting(TaskDTO::getTitle).containsExactly("Купить кефир");
+    }
+
+    @Test
+    @DisplayName("Событие со старой версией не затирает более новое состояние")
+    void onTaskChanged_ignoresStaleVersion() {
+        search.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 3, task(3, "Позвонить папе", "", 2)));
+        search.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 3, task(3, "Позвонить бабушке", "", 1)));
+
+        assertThat(search.search("позвонить", 0, 10)).extracting(TaskDTO::getTitle).containsExactly("Позвонить папе");
+    }
+
+    @Test
+    @DisplayName("Запоздавшее изменение удалённой задачи не возвращает её в индекс, восстановление возвращает")
+    void onTaskChanged_deletedTaskIsNotResurrected() {
+        search.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, 3, null, 2L));
+        search.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 3, task(3, "Позвонить папе", "", 2)));
+
+        assertThat(search.search("позвонить", 0, 10)).isEmpty();
+
+        search.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, 3, task(3, "Позвонить папе", "", 3)));
+
+        assertThat(search.search("позвонить", 0, 10)).extracting(TaskDTO::getVersion).containsExactly(3L);
+
+        //удаление старой версии пришло после восстановления
+        search.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, 3, null, 2L));
+
+        assertThat(search.search("позвонить", 0, 10)).extracting(TaskDTO::getVersion).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("События, пришедшие во время перестроения, не теряются")
+    void rebuild_replaysEventsDuringLoad() {
+        TaskRepository repository = mock(TaskRepository.class);
+        InMemoryTaskSearch rebuilt = new InMemoryTaskSearch(repository);
+        when(repository.findAllDtos()).thenAnswer(invocation -> {
+            //прочитанное ещё содержит задачу 1 и не содержит задачу 2
+            rebuilt.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, 1, null, 0L));
+            rebuilt.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, 2, task(2, "Купить хлеб", "", 0)));
+            return List.of(task(1, "Купить молоко", "", 0));
+        });
+
+        rebuilt.rebuild();
+
+        assertThat(rebuilt.search("купить", 0, 10)).extracting(TaskDTO::getId).containsExactly(2);
+    }
+
+    private static TaskDTO task(int id, String title, String description, long version) {
+        return new TaskDTO(id, title, description, DUE, TaskStatus.TODO, version);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.exception.TaskNotFoundException;
+import com.example.SpringToDo.mapper.TaskMapper;
+import com.example.SpringToDo.model.Task;
+import com.example.SpringToDo.model.TaskArchive;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskArchiveRepository;
+import com.example.SpringToDo.repository.TaskRepository;
+import com.example.SpringToDo.search.TaskSearchConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {"todo.archive.enabled=true", "todo.archive.older-than-days=30", "todo.archive.batch-size=2"})
+@Import({TaskServiceImpl.class, TaskMapper.class, TaskBatchProcessor.class, TaskSearchConfig.class, TaskStatsCounter.class, TaskArchiver.class, TaskArchiverTest.CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskArchiverTest {
+
+    @TestConfiguration
+    static class CacheConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(TaskServiceImpl.TASKS_CACHE);
+        }
+    }
+
+    @Autowired
+    private TaskArchiver archiver;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private TaskArchiveRepository archiveRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAllInBatch();
+        archiveRepository.deleteAllInBatch();
+    }
+
+    private int save(String title, LocalDate dueDate, TaskStatus status) {
+        return repository.save(new Task(0, title, "", dueDate, status)).getId();
+    }
+
+    //выполненная completedDaysAgo дней назад; null — выполнена до появления completed_at
+    private int saveDone(String title, LocalDate dueDate, Integer completedDaysAgo) {
+        Task task = new Task(0, title, "", dueDate, TaskStatus.DONE);
+        task.setCompletedAt(completedDaysAgo != null ? Instant.now().minus(Duration.ofDays(completedDaysAgo)) : null);
+        return repository.save(task).getId();
+    }
+
+    @Test
+    @DisplayName("В архив порциями уходят только DONE-задачи, выполненные больше older-than-days назад")
+    void archiveDoneTasks_movesOnlyOldDoneTasks() {
+        int old1 = saveDone("Old 1", today.minusDays(40), 40);
+        int old2 = saveDone("Old 2", today.plusDays(10), 50);
+        //выполнена до появления completed_at: возраст по сроку
+        int old3 = saveDone("Old 3", today.minusDays(60), null);
+        int recent = saveDone("Recent", today.minusDays(5), 5);
+        //срок давно прошёл, но выполнена вчера
+        int lateDone = saveDone("Late", today.minusDays(90), 1);
+        int open = save("Open", today.minusDays(40), TaskStatus.TODO);
+        taskService.getTaskById(old1);
+
+        assertThat(archiver.archiveDoneTasks()).isEqualTo(3);
+
+        assertThat(repository.findAll()).extracting(Task::getId).containsExactlyInAnyOrder(recent, lateDone, open);
+        assertThat(archiveRepository.findAll()).extracting(TaskArchive::getId)
+                .containsExactlyInAnyOrder(old1, old2, old3);
+        assertThat(archiveRepository.findAll()).allSatisfy(a -> assertThat(a.getArchivedAt()).isNotNull());
+        //закэшированная задача тоже убрана из кэша
+        assertThat(cacheManager.getCache(TaskServiceImpl.TASKS_CACHE).get(old1)).isNull();
+        assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(old1));
+        assertThat(archiver.archiveDoneTasks()).isZero();
+    }
+
+    private int saveAndArchive(String title) {
+        int id = saveDone(title, today.minusDays(40), 40);
+        archiver.archiveDoneTasks();
+        return id;
+    }
+
+    @Test
+    @DisplayName("Список с includeArchived объединяет таблицы, восстановленная задача возвращается с прежним id")
+    void includeArchivedAndRestore() {
+        int archivedId = saveDone("Archived", today.minusDays(40), 40);
+        int openId = save("Open", today.plusDays(1), TaskStatus.TODO);
+        archiver.archiveDoneTasks();
+
+        assertThat(taskService.getAllTasksIncludingArchived(null, TaskSort.DUE_DATE))
+                .extracting(TaskDTO::getId).containsExactly(archivedId, openId);
+        assertThat(taskService.getAllTasksIncludingArchived(TaskStatus.DONE, TaskSort.ID))
+                .extracting(TaskDTO::getId).containsExactly(archivedId);
+        assertThat(taskService.getArchivedTaskById(archivedId).getTitle()).isEqualTo("Archived");
+
+        TaskDTO restored = taskService.restoreTask(archivedId, TaskStatus.TODO);
+
+        assertThat(restored.getId()).isEqualTo(archivedId);
+        assertThat(restored.getStatus()).isEqualTo(TaskStatus.TODO);
+        assertThat(restored.getVersion()).isEqualTo(1L);
+        assertThat(taskService.getTaskById(archivedId)).isEqualTo(restored);
+        assertThat(archiveRepository.count()).isZero();
+        assertThrows(TaskNotFoundException.class, () -> taskService.restoreTask(archivedId, null));
+        //открытая задача в архив не уходит
+        assertThat(archiver.archiveDoneTasks()).isZero();
+        //выполненная при восстановлении считается выполненной сейчас
+        TaskDTO done = taskService.restoreTask(saveAndArchive("Done again"), TaskStatus.DONE);
+        assertThat(repository.findById(done.getId()).orElseThrow().getCompletedAt()).isNotNull();
+        assertThat(archiver.archiveDoneTasks()).isZero();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
+import com.example.SpringToDo.dto.TaskBatchResultDTO;
+import com.example.SpringToDo.dto.TaskCreateDTO;
+import com.example.SpringToDo.mapper.TaskMapper;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskRepository;
+import com.example.SpringToDo.search.TaskSearchConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнивает загрузку N задач по одной (как N вызовов POST /api/v1/tasks) и через applyBatch.
+ * Запуск: ./gradlew benchmark -Dbenchmark.tasks=20000
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@Import({TaskServiceImpl.class, TaskMapper.class, TaskBatchProcessor.class, TaskSearchConfig.class, TaskStatsCounter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskBatchBenchmarkTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Test
+    @DisplayName("Пакетная загрузка против создания по одной задаче")
+    void bulkLoad_batchVsSingle() {
+        int count = Integer.getInteger("benchmark.tasks", 20_000);
+        LocalDate dueDate = LocalDate.now().plusDays(1);
+
+        //прогрев JIT и пула соединений
+        loadOneByOne(1_000, dueDate);
+        loadBatch(1_000, dueDate);
+        repository.deleteAllInBatch();
+
+        long singleNanos = loadOneByOne(count, dueDate);
+        repository.deleteAllInBatch();
+        long batchNanos = loadBatch(count, dueDate);
+
+        assertThat(repository.count()).isEqualTo(count);
+        System.out.printf("tasks=%d single=%.1f tasks/s batch=%.1f tasks/s speedup=%.1fx%n",
+                count,
+                count / (singleNanos / 1e9),
+                count / (batchNanos / 1e9),
+                (double) singleNanos / batchNanos);
+    }
+
+    private long loadOneByOne(int count, LocalDate dueDate) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            taskService.createTask(new TaskCreateDTO("Task " + i, "Description " + i, dueDate, TaskStatus.TODO));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long loadBatch(int count, LocalDate dueDate) {
+        long start = System.nanoTime();
+        for (int from = 0; from < count; from += TaskServiceImpl.MAX_BATCH_SIZE) {
+            List<TaskBatchOperationDTO> operations = new ArrayList<>();
+            for (int i = from; i < Math.min(count, from + TaskServiceImpl.MAX_BATCH_SIZE); i++) {
+                operations.add(new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.CREATE, null,
+                        "Task " + i, "Description " + i, dueDate, TaskStatus.TODO));
+            }
+            List<TaskBatchResultDTO> results = taskService.applyBatch(operations);
+            assertThat(results).allMatch(TaskBatchResultDTO::isSuccess);
+        }
+        return System.nanoTime() - start;
+    }
+}
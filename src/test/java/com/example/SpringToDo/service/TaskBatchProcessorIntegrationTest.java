@@ -0,0 +1,66 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.mapper.TaskMapper;
+import com.example.SpringToDo.model.Task;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({TaskBatchProcessor.class, TaskMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class TaskBatchProcessorIntegrationTest {
+
+    @Autowired
+    private TaskBatchProcessor processor;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Событие UPDATE из пакета несёт версию, записанную в базу")
+    void processChunk_updateEventCarriesCommittedVersion() {
+        LocalDate dueDate = LocalDate.now().plusDays(1);
+        Task task = repository.save(new Task(0, "Old", "", dueDate, TaskStatus.TODO));
+        long versionBefore = task.getVersion();
+
+        processor.processChunk(List.of(
+                new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.UPDATE, task.getId(), "New", "", dueDate,
+                        TaskStatus.DONE)), 0);
+
+        long committed = repository.findById(task.getId()).orElseThrow().getVersion();
+        assertThat(committed).isEqualTo(versionBefore + 1);
+        assertThat(events.stream(TaskChangedEvent.class))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getType()).isEqualTo(TaskChangedEvent.Type.UPDATED);
+                    assertThat(event.getTask().getVersion()).isEqualTo(committed);
+                    assertThat(event.getTask().getTitle()).isEqualTo("New");
+                });
+    }
+}
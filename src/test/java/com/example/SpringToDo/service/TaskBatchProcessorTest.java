@@ -0,0 +1,85 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
+import com.example.SpringToDo.dto.TaskBatchResultDTO;
+import com.example.SpringToDo.mapper.TaskMapper;
+import com.example.SpringToDo.model.Task;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskArchiveRepository;
+import com.example.SpringToDo.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TaskBatchProcessorTest {
+    private TaskRepository repository;
+    private TaskBatchProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TaskRepository.class);
+        processor = new TaskBatchProcessor(repository, mock(TaskArchiveRepository.class), new TaskMapper(),
+                mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    @DisplayName("Чанк сохраняет новые задачи одним saveAll и удаляет одним запросом")
+    void processChunk_shouldBatchCreatesAndDeletes() {
+        LocalDate dueDate = LocalDate.now().plusDays(1);
+        Task existing = new Task(7, "Old", "", dueDate, TaskStatus.TODO);
+        when(repository.findAllById(List.of(7))).thenReturn(List.of(existing));
+        when(repository.saveAll(anyList())).thenAnswer(i -> {
+            List<Task> tasks = i.getArgument(0);
+            for (int n = 0; n < tasks.size(); n++) {
+                tasks.get(n).setId(100 + n);
+            }
+            return tasks;
+        });
+
+        List<TaskBatchResultDTO> results = processor.processChunk(List.of(
+                new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.CREATE, null, "A", "", dueDate, TaskStatus.TODO),
+                new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.CREATE, null, "B", "", dueDate, TaskStatus.DONE),
+                new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.DELETE, 7, null, null, null, null)
+        ), 10);
+
+        assertEquals(List.of(10, 11, 12), results.stream().map(TaskBatchResultDTO::getIndex).toList());
+        assertEquals(100, results.get(0).getId());
+        assertEquals(101, results.get(1).getId());
+        assertTrue(results.get(2).isSuccess());
+        verify(repository, times(1)).saveAll(anyList());
+        verify(repository).deleteAllByIdInBatch(List.of(7));
+    }
+
+    @Test
+    @DisplayName("Ошибки отдельных операций не мешают остальным операциям чанка")
+    void processChunk_invalidItems_shouldReportPerItemErrors() {
+        LocalDate dueDate = LocalDate.now().plusDays(1);
+        Task existing = new Task(3, "Old", "", dueDate, TaskStatus.TODO);
+        when(repository.findAllById(List.of(3, 404))).thenReturn(List.of(existing));
+        when(repository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        List<TaskBatchResultDTO> results = processor.processChunk(List.of(
+                new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.CREATE, null, " ", "", dueDate, TaskStatus.TODO),
+                new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.UPDATE, 3, "New", "", dueDate, TaskStatus.DONE),
+                new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.UPDATE, 404, "X", "", dueDate, TaskStatus.DONE),
+                new TaskBatchOperationDTO(null, 1, null, null, null, null)
+        ), 0);
+
+        assertFalse(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals("New", existing.getTitle());
+        assertEquals(TaskStatus.DONE, existing.getStatus());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals("Task with id 404 not found", results.get(2).getError());
+        assertFalse(results.get(3).isSuccess());
+        verify(repository, never()).deleteAllByIdInBatch(anyIterable());
+    }
+}
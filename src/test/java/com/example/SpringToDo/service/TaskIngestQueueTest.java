@@ -0,0 +1,141 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
+import com.example.SpringToDo.dto.TaskBatchResultDTO;
+import com.example.SpringToDo.dto.TaskCreateDTO;
+import com.example.SpringToDo.dto.TaskIngestStatusDTO;
+import com.example.SpringToDo.exception.TaskIngestRejectedException;
+import com.example.SpringToDo.mapper.TaskMapper;
+import com.example.SpringToDo.model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TaskIngestQueueTest {
+    private final TaskBatchProcessor batchProcessor = mock(TaskBatchProcessor.class);
+    private TaskIngestQueue queue;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Задачи, пришедшие в пределах max-delay, пишутся одной группой")
+    void enqueue_writesGroupAndTracksIds() throws Exception {
+        when(batchProcessor.processChunk(anyList(), anyInt())).thenAnswer(i -> {
+            List<TaskBatchOperationDTO> chunk = i.getArgument(0);
+            List<TaskBatchResultDTO> results = new ArrayList<>();
+            for (int index = 0; index < chunk.size(); index++) {
+                results.add(TaskBatchResultDTO.success(index, TaskBatchOperationDTO.Operation.CREATE, 100 + index));
+            }
+            return results;
+        });
+        queue = new TaskIngestQueue(batchProcessor, new TaskMapper(), 100, 10, 500, 60, 1000);
+        queue.start();
+
+        List<String> trackingIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TaskIngestStatusDTO status = queue.enqueue(task("Task " + i));
+            assertThat(status.getState()).isEqualTo(TaskIngestStatusDTO.State.QUEUED);
+            trackingIds.add(status.getTrackingId());
+        }
+
+        awaitState(trackingIds.get(2), TaskIngestStatusDTO.State.CREATED);
+        verify(batchProcessor, times(1)).processChunk(argThat(chunk -> chunk.size() == 3), eq(0));
+        assertThat(queue.getStatus(trackingIds.get(0)).orElseThrow().getTaskId()).isEqualTo(100);
+        assertThat(queue.getStatus(trackingIds.get(2)).orElseThrow().getTaskId()).isEqualTo(102);
+    }
+
+    @Test
+    @DisplayName("Откат группы из-за одной задачи помечает FAILED только её, остальные создаются")
+    void write_failedGroup_retriesInHalves() throws Exception {
+        when(batchProcessor.processChunk(anyList(), anyInt())).thenAnswer(i -> {
+            List<TaskBatchOperationDTO> chunk = i.getArgument(0);
+            List<TaskBatchResultDTO> results = new ArrayList<>();
+            for (int index = 0; index < chunk.size(); index++) {
+                if (chunk.get(index).getTitle().equals("bad")) {
+                    throw new DataIntegrityViolationException("value too long");
+                }
+                results.add(TaskBatchResultDTO.success(index, TaskBatchOperationDTO.Operation.CREATE,
+                        Integer.parseInt(chunk.get(index).getTitle())));
+            }
+            return results;
+        });
+        queue = new TaskIngestQueue(batchProcessor, new TaskMapper(), 100, 10, 500, 60, 1000);
+        queue.start();
+
+        List<String> trackingIds = new ArrayList<>();
+        for (String title : List.of("1", "2", "bad", "4", "5")) {
+            trackingIds.add(queue.enqueue(task(title)).getTrackingId());
+        }
+
+        awaitState(trackingIds.get(4), TaskIngestStatusDTO.State.CREATED);
+        awaitState(trackingIds.get(2), TaskIngestStatusDTO.State.FAILED);
+        assertThat(trackingIds).extracting(id -> queue.getStatus(id).orElseThrow().getTaskId())
+                .containsExactly(1, 2, null, 4, 5);
+        assertThat(queue.getStatus(trackingIds.get(2)).orElseThrow().getError()).contains("value too long");
+    }
+
+    @Test
+    @DisplayName("Переполненная очередь отклоняет задачу")
+    void enqueue_fullQueue_shouldReject() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(batchProcessor.processChunk(anyList(), anyInt())).thenAnswer(i -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        queue = new TaskIngestQueue(batchProcessor, new TaskMapper(), 1, 10, 0, 60, 1000);
+        queue.start();
+
+        queue.enqueue(task("in writer"));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        queue.enqueue(task("in queue"));
+
+        assertThrows(TaskIngestRejectedException.class, () -> queue.enqueue(task("rejected")));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Задача не проходит проверку до постановки в очередь")
+    void enqueue_invalidTask_shouldThrow() {
+        queue = new TaskIngestQueue(batchProcessor, new TaskMapper(), 10, 10, 0, 60, 1000);
+        queue.start();
+        TaskCreateDTO past = new TaskCreateDTO("Past", "", LocalDate.now().minusDays(1), TaskStatus.TODO);
+
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(past));
+        assertThat(queue.getQueueSize()).isZero();
+    }
+
+    private static TaskCreateDTO task(String title) {
+        return new TaskCreateDTO(title, "", LocalDate.now().plusDays(1), TaskStatus.TODO);
+    }
+
+    private void awaitState(String trackingId, TaskIngestStatusDTO.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (queue.getStatus(trackingId).map(TaskIngestStatusDTO::getState).orElse(null) == state) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Task " + trackingId + " did not reach " + state);
+    }
+}
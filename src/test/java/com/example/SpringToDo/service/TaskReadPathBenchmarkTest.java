@@ -0,0 +1,104 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.mapper.TaskMapper;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskRepository;
+import com.example.SpringToDo.search.TaskSearchConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнивает прежний путь чтения (сущности + TaskMapper в read-write транзакции)
+ * с проекцией в TaskDTO в read-only транзакции: время и аллокации на один вызов.
+ * Запуск: ./gradlew benchmark --tests '*TaskReadPathBenchmarkTest' -Dbenchmark.tasks=50000
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@Import({TaskServiceImpl.class, TaskMapper.class, TaskBatchProcessor.class, TaskSearchConfig.class, TaskStatsCounter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskReadPathBenchmarkTest {
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private TaskMapper taskMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Проекция в DTO против сущностей и TaskMapper")
+    void readPath_projectionVsEntities() {
+        int count = Integer.getInteger("benchmark.tasks", 50_000);
+        seed(count);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        Supplier<List<TaskDTO>> entityPath = () -> readWrite.execute(status ->
+                taskMapper.toDtoList(repository.findAll(Sort.by("dueDate", "id"))));
+        Supplier<List<TaskDTO>> projectionPath = taskService::getAllTasksSortedByDueDate;
+
+        assertThat(entityPath.get()).isEqualTo(projectionPath.get());
+        for (int i = 0; i < ITERATIONS; i++) {
+            entityPath.get();
+            projectionPath.get();
+        }
+
+        report("entities+mapper", count, entityPath);
+        report("dto projection", count, projectionPath);
+    }
+
+    private void seed(int count) {
+        LocalDate today = LocalDate.now();
+        TaskStatus[] statuses = TaskStatus.values();
+        List<TaskBatchOperationDTO> operations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            operations.add(new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.CREATE, null,
+                    "Task " + i, "Description " + i, today.plusDays(i % 365), statuses[i % statuses.length]));
+            if (operations.size() == TaskServiceImpl.MAX_BATCH_SIZE) {
+                taskService.applyBatch(operations);
+                operations = new ArrayList<>();
+            }
+        }
+        if (!operations.isEmpty()) {
+            taskService.applyBatch(operations);
+        }
+    }
+
+    private void report(String name, int count, Supplier<List<TaskDTO>> path) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            path.get();
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf("%s: tasks=%d avg=%.2f ms alloc=%.1f MB/call%n",
+                name, count, nanos / 1e6 / ITERATIONS, bytes / 1024.0 / 1024.0 / ITERATIONS);
+    }
+}
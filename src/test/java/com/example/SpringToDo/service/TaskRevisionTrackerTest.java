@@ -0,0 +1,47 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
+import com.example.SpringToDo.dto.TaskCreateDTO;
+import com.example.SpringToDo.mapper.TaskMapper;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.search.TaskSearchConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({TaskServiceImpl.class, TaskMapper.class, TaskBatchProcessor.class, TaskSearchConfig.class, TaskStatsCounter.class, TaskRevisionTracker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskRevisionTrackerTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRevisionTracker tracker;
+
+    @Test
+    @DisplayName("Ревизия растёт на одну за транзакцию записи, а не за каждую задачу")
+    void revision_incrementedOncePerWriteTransaction() {
+        tracker.init();
+        long initial = taskService.getTasksRevision();
+        LocalDate dueDate = LocalDate.now().plusDays(1);
+
+        taskService.createTask(new TaskCreateDTO("A", "", dueDate, TaskStatus.TODO));
+        taskService.applyBatch(List.of(
+                new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.CREATE, null, "B", "", dueDate, TaskStatus.TODO),
+                new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.CREATE, null, "C", "", dueDate, TaskStatus.DONE)
+        ));
+
+        assertThat(taskService.getTasksRevision()).isEqualTo(initial + 2);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.mapper.TaskMapper;
+import com.example.SpringToDo.model.Task;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskRepository;
+import com.example.SpringToDo.search.TaskSearchConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({TaskServiceImpl.class, TaskMapper.class, TaskBatchProcessor.class, TaskSearchConfig.class, TaskStatsCounter.class, TaskServiceCacheTest.CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskServiceCacheTest {
+
+    @TestConfiguration
+    static class CacheConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(TaskServiceImpl.TASKS_CACHE);
+        }
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    @DisplayName("getTaskById кладёт задачу в кэш, update и delete её вытесняют")
+    void getTaskById_cachedAndInvalidatedOnWrites() {
+        Task task = repository.save(new Task(0, "Cached", "", LocalDate.now().plusDays(1), TaskStatus.TODO));
+        Cache cache = cacheManager.getCache(TaskServiceImpl.TASKS_CACHE);
+
+        TaskDTO loaded = taskService.getTaskById(task.getId());
+        assertThat(cache.get(task.getId(), TaskDTO.class)).isEqualTo(loaded);
+
+        //изменения — в новом DTO: loaded лежит в кэше по ссылке
+        TaskDTO update = new TaskDTO(loaded.getId(), "Updated", loaded.getDescription(), loaded.getDueDate(),
+                loaded.getStatus(), loaded.getVersion());
+        taskService.updateTask(task.getId(), update);
+        assertThat(cache.get(task.getId())).isNull();
+        assertThat(loaded.getTitle()).isEqualTo("Cached");
+
+        assertThat(taskService.getTaskById(task.getId()).getTitle()).isEqualTo("Updated");
+        taskService.deleteTask(task.getId());
+        assertThat(cache.get(task.getId())).isNull();
+    }
+}
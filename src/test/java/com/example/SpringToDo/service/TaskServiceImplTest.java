@@ -1,18 +1,32 @@
 package com.example.SpringToDo.service;
 
+import com.example.SpringToDo.dto.TaskBatchOperationDTO;
+import com.example.SpringToDo.dto.TaskBatchResultDTO;
 import com.example.SpringToDo.dto.TaskCreateDTO;
 import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskPageDTO;
+import com.example.SpringToDo.dto.TaskPatchDTO;
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.exception.TaskConflictException;
 import com.example.SpringToDo.exception.TaskNotFoundException;
 import com.example.SpringToDo.mapper.TaskMapper;
 import com.example.SpringToDo.model.Task;
 import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskArchiveRepository;
 import com.example.SpringToDo.repository.TaskRepository;
+import com.example.SpringToDo.repository.TaskRevisionRepository;
+import com.example.SpringToDo.search.TaskSearch;
 import com.example.SpringToDo.testfactory.TaskTestFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -24,13 +38,26 @@ import static org.mockito.Mockito.*;
 class TaskServiceImplTest {
     private TaskRepository repository;
     private TaskMapper taskMapper;
+    private TaskBatchProcessor batchProcessor;
+    private TaskRevisionRepository revisionRepository;
+    private TaskArchiveRepository archiveRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private TaskSearch taskSearch;
+    private TaskStatsCounter statsCounter;
     private TaskServiceImpl service;
 
     @BeforeEach
     void setUp() {
         repository = mock(TaskRepository.class);
         taskMapper = mock(TaskMapper.class);
-        service = new TaskServiceImpl(repository, taskMapper);
+        batchProcessor = mock(TaskBatchProcessor.class);
+        revisionRepository = mock(TaskRevisionRepository.class);
+        archiveRepository = mock(TaskArchiveRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        taskSearch = mock(TaskSearch.class);
+        statsCounter = mock(TaskStatsCounter.class);
+        service = new TaskServiceImpl(repository, taskMapper, batchProcessor, revisionRepository, archiveRepository,
+                eventPublisher, taskSearch, statsCounter, Optional.empty());
 
         when(taskMapper.toEntity(any(TaskCreateDTO.class))).thenAnswer(i -> {
             TaskCreateDTO dto = i.getArgument(0);
@@ -69,87 +96,177 @@ class TaskServiceImplTest {
         verify(repository).save(taskEntity);
         assertEquals(savedEntity.getId(), result.getId());
         assertEquals(savedEntity.getTitle(), result.getTitle());
+        verify(eventPublisher).publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, 1, result));
     }
 
     @Test
-    @DisplayName("Обновление существующей задачи вызывает save и возвращает DTO")
-    void updateTask_existingId_shouldSaveAndReturnDTO() {
+    @DisplayName("Обновление без версии выполняет UPDATE и перечитывает задачу")
+    void updateTask_existingId_shouldUpdateAndReturnDTO() {
         TaskDTO dto = TaskTestFactory.createDefaultTaskDTO();
-        when(repository.existsById(dto.getId())).thenReturn(true);
-        when(repository.save(any(Task.class))).thenReturn(new Task(dto.getId(), dto.getTitle(), dto.getDescription(), dto.getDueDate(), dto.getStatus()));
+        TaskDTO persisted = new TaskDTO(dto.getId(), dto.getTitle(), dto.getDescription(), dto.getDueDate(), dto.getStatus(), 4L);
+        when(repository.updateLatest(eq(dto.getId()), eq(dto.getTitle()), eq(dto.getDescription()), eq(dto.getDueDate()),
+                eq(dto.getStatus()), any()))
+                .thenReturn(1);
+        when(repository.findDtoById(dto.getId())).thenReturn(Optional.of(persisted));
 
         TaskDTO updated = service.updateTask(dto.getId(), dto);
 
-        verify(repository).existsById(dto.getId());
-        verify(repository).save(any(Task.class));
-        assertEquals(dto.getId(), updated.getId());
+        assertEquals(persisted, updated);
+        verify(repository, never()).save(any(Task.class));
+        verify(eventPublisher).publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, dto.getId(), persisted));
     }
 
     @Test
     @DisplayName("Обновление задачи с несуществующим ID вызывает TaskNotFoundException")
     void updateTask_nonExistentId_shouldThrow() {
         TaskDTO dto = TaskTestFactory.createDefaultTaskDTO();
-        when(repository.existsById(dto.getId())).thenReturn(false);
+        when(repository.updateLatest(anyInt(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        assertThrows(TaskNotFoundException.class, () -> service.updateTask(dto.getId(), dto));
+        verify(repository, never()).save(any(Task.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Обновление с версией обходится одним UPDATE и возвращает следующую версию")
+    void updateTask_withVersion_shouldUpdateWithoutRead() {
+        TaskDTO dto = TaskTestFactory.createDefaultTaskDTO();
+        dto.setVersion(2L);
+        when(repository.updateIfVersionMatches(eq(dto.getId()), eq(2L), eq(dto.getTitle()), eq(dto.getDescription()),
+                eq(dto.getDueDate()), eq(dto.getStatus()), any()))
+                .thenReturn(1);
+
+        TaskDTO updated = service.updateTask(dto.getId(), dto);
+
+        assertEquals(3L, updated.getVersion());
+        assertEquals(dto.getTitle(), updated.getTitle());
+        verify(repository, never()).findDtoById(anyInt());
+        verify(repository, never()).findById(anyInt());
+    }
+
+    @Test
+    @DisplayName("Обновление с устаревшей версией вызывает TaskConflictException")
+    void updateTask_staleVersion_shouldThrowConflict() {
+        TaskDTO dto = TaskTestFactory.createDefaultTaskDTO();
+        dto.setVersion(2L);
+        when(repository.updateIfVersionMatches(anyInt(), anyLong(), any(), any(), any(), any(), any())).thenReturn(0);
+        when(repository.findVersionById(dto.getId())).thenReturn(Optional.of(5L));
+
+        assertThrows(TaskConflictException.class, () -> service.updateTask(dto.getId(), dto));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Обновление с версией несуществующей задачи вызывает TaskNotFoundException")
+    void updateTask_withVersionMissingTask_shouldThrowNotFound() {
+        TaskDTO dto = TaskTestFactory.createDefaultTaskDTO();
+        dto.setVersion(2L);
+        when(repository.updateIfVersionMatches(anyInt(), anyLong(), any(), any(), any(), any(), any())).thenReturn(0);
+        when(repository.findVersionById(dto.getId())).thenReturn(Optional.empty());
 
         assertThrows(TaskNotFoundException.class, () -> service.updateTask(dto.getId(), dto));
-        verify(repository).existsById(dto.getId());
+    }
+
+    @Test
+    @DisplayName("PATCH меняет только переданные поля")
+    void patchTask_shouldChangeOnlyGivenFields() {
+        Task task = new Task(1, "Old", "Desc", LocalDate.now().plusDays(1), TaskStatus.TODO);
+        when(repository.findById(1)).thenReturn(Optional.of(task));
+        TaskPatchDTO patch = new TaskPatchDTO();
+        patch.setStatus(TaskStatus.DONE);
+
+        TaskDTO patched = service.patchTask(1, patch);
+
+        assertEquals(TaskStatus.DONE, patched.getStatus());
+        assertEquals("Old", patched.getTitle());
+        assertEquals("Desc", patched.getDescription());
+        verify(repository).flush();
         verify(repository, never()).save(any(Task.class));
     }
 
     @Test
-    @DisplayName("Удаление задачи с существующим ID вызывает deleteById")
+    @DisplayName("PATCH с устаревшей версией вызывает TaskConflictException")
+    void patchTask_staleVersion_shouldThrowConflict() {
+        Task task = new Task(1, "Old", "Desc", LocalDate.now().plusDays(1), TaskStatus.TODO);
+        task.setVersion(3L);
+        when(repository.findById(1)).thenReturn(Optional.of(task));
+        TaskPatchDTO patch = new TaskPatchDTO();
+        patch.setTitle("New");
+        patch.setVersion(2L);
+
+        assertThrows(TaskConflictException.class, () -> service.patchTask(1, patch));
+        assertEquals("Old", task.getTitle());
+    }
+
+    @Test
+    @DisplayName("PATCH с пустым заголовком вызывает IllegalArgumentException")
+    void patchTask_blankTitle_shouldThrow() {
+        Task task = new Task(1, "Old", "Desc", LocalDate.now().plusDays(1), TaskStatus.TODO);
+        when(repository.findById(1)).thenReturn(Optional.of(task));
+        TaskPatchDTO patch = new TaskPatchDTO();
+        patch.setTitle(" ");
+
+        assertThrows(IllegalArgumentException.class, () -> service.patchTask(1, patch));
+        verify(repository, never()).flush();
+    }
+
+    @Test
+    @DisplayName("Удаление задачи с существующим ID удаляет её и публикует событие с версией удалённой строки")
     void deleteTask_existingId_shouldDelete() {
         int id = 1;
-        when(repository.existsById(id)).thenReturn(true);
+        Task task = new Task(id, "T", "D", LocalDate.now().plusDays(1), TaskStatus.TODO);
+        task.setVersion(3L);
+        when(repository.findById(id)).thenReturn(Optional.of(task));
 
         service.deleteTask(id);
 
-        verify(repository).existsById(id);
-        verify(repository).deleteById(id);
+        verify(repository).delete(task);
+        verify(eventPublisher).publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, id, null, 3L));
     }
 
     @Test
     @DisplayName("Удаление задачи с несуществующим ID вызывает TaskNotFoundException")
     void deleteTask_nonExistentId_shouldThrow() {
         int id = 999;
-        when(repository.existsById(id)).thenReturn(false);
+        when(repository.findById(id)).thenReturn(Optional.empty());
 
         assertThrows(TaskNotFoundException.class, () -> service.deleteTask(id));
-        verify(repository).existsById(id);
-        verify(repository, never()).deleteById(id);
+        verify(repository, never()).delete(any(Task.class));
     }
 
     @Test
     @DisplayName("Получение всех задач возвращает список DTO")
     void getAllTasks_shouldReturnDtoList() {
-        List<Task> tasks = List.of(
-                new Task(1, "T1", "D1", LocalDate.now().plusDays(1), TaskStatus.TODO),
-                new Task(2, "T2", "D2", LocalDate.now().plusDays(2), TaskStatus.DONE)
+        List<TaskDTO> tasks = List.of(
+                new TaskDTO(1, "T1", "D1", LocalDate.now().plusDays(1), TaskStatus.TODO),
+                new TaskDTO(2, "T2", "D2", LocalDate.now().plusDays(2), TaskStatus.DONE)
         );
-        when(repository.findAll()).thenReturn(tasks);
+        when(repository.findAllDtos()).thenReturn(tasks);
 
         List<TaskDTO> dtos = service.getAllTasks();
 
         assertEquals(tasks.size(), dtos.size());
-        verify(repository).findAll();
+        verify(repository).findAllDtos();
+        verify(taskMapper, never()).toDtoList(anyList());
     }
 
     @Test
     @DisplayName("Получение задачи по существующему ID возвращает DTO")
     void getTaskById_existingId_shouldReturnDto() {
-        Task task = new Task(1, "T1", "D1", LocalDate.now().plusDays(1), TaskStatus.TODO);
-        when(repository.findById(1)).thenReturn(Optional.of(task));
+        TaskDTO task = new TaskDTO(1, "T1", "D1", LocalDate.now().plusDays(1), TaskStatus.TODO);
+        when(repository.findDtoById(1)).thenReturn(Optional.of(task));
 
         TaskDTO dto = service.getTaskById(1);
 
         assertEquals(task.getId(), dto.getId());
-        verify(repository).findById(1);
+        verify(repository).findDtoById(1);
+        verify(repository, never()).findById(anyInt());
     }
 
     @Test
     @DisplayName("Получение задачи по несуществующему ID вызывает TaskNotFoundException")
     void getTaskById_nonExistentId_shouldThrow() {
-        when(repository.findById(999)).thenReturn(Optional.empty());
+        when(repository.findDtoById(999)).thenReturn(Optional.empty());
 
         assertThrows(TaskNotFoundException.class, () -> service.getTaskById(999));
     }
@@ -158,15 +275,78 @@ class TaskServiceImplTest {
     @DisplayName("Фильтрация по статусу возвращает отфильтрованные DTO")
     void filterTasksByStatus_validStatus_shouldReturnFiltered() {
         TaskStatus status = TaskStatus.TODO;
-        Task t1 = new Task(1, "T1", "D1", LocalDate.now().plusDays(1), status);
-        Task t2 = new Task(2, "T2", "D2", LocalDate.now().plusDays(1), TaskStatus.DONE);
+        TaskDTO t1 = new TaskDTO(1, "T1", "D1", LocalDate.now().plusDays(1), status);
+        TaskDTO t2 = new TaskDTO(2, "T2", "D2", LocalDate.now().plusDays(1), TaskStatus.DONE);
 
-        when(repository.findAll()).thenReturn(List.of(t1, t2));
+        when(repository.findDtosByStatus(status)).thenReturn(List.of(t1));
+        when(repository.findDtosByStatus(TaskStatus.DONE)).thenReturn(List.of(t2));
 
         List<TaskDTO> filtered = service.filterTasksByStatus(status);
 
         assertEquals(1, filtered.size());
         assertEquals(status, filtered.get(0).getStatus());
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Сортировка по статусу идёт в порядке TODO, IN_PROGRESS, DONE")
+    void getAllTasksSortedByStatus_shouldFollowEnumOrder() {
+        TaskDTO done = new TaskDTO(1, "T1", "D1", LocalDate.now().plusDays(1), TaskStatus.DONE);
+        TaskDTO todo = new TaskDTO(2, "T2", "D2", LocalDate.now().plusDays(1), TaskStatus.TODO);
+        when(repository.findDtosByStatus(TaskStatus.DONE)).thenReturn(List.of(done));
+        when(repository.findDtosByStatus(TaskStatus.TODO)).thenReturn(List.of(todo));
+
+        List<TaskDTO> sorted = service.getAllTasksSortedByStatus();
+
+        assertEquals(List.of(2, 1), sorted.stream().map(TaskDTO::getId).toList());
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("С загруженным индексом сортированные списки и выборки по сроку не читают базу")
+    void sortedReads_withIndex_shouldNotQueryRepository() {
+        TaskSortedIndex index = mock(TaskSortedIndex.class);
+        TaskDTO task = new TaskDTO(1, "T1", "D1", LocalDate.now().plusDays(1), TaskStatus.TODO);
+        when(index.isReady()).thenReturn(true);
+        when(index.getSortedByDueDate()).thenReturn(List.of(task));
+        when(index.getDueBetween(TaskStatus.TODO, null, LocalDate.now().plusDays(7), 10)).thenReturn(List.of(task));
+        TaskServiceImpl indexed = new TaskServiceImpl(repository, taskMapper, batchProcessor, revisionRepository,
+                archiveRepository, eventPublisher, taskSearch, statsCounter, Optional.of(index));
+
+        assertEquals(List.of(task), indexed.getAllTasksSortedByDueDate());
+        assertEquals(List.of(task), indexed.getTasksDueBetween(TaskStatus.TODO, null, LocalDate.now().plusDays(7), 10));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Список из индекса несёт ревизию индекса; при актуальной ревизии список не читается")
+    void getTaskList_withIndex_shouldUseIndexRevision() {
+        TaskSortedIndex index = mock(TaskSortedIndex.class);
+        TaskDTO task = new TaskDTO(1, "T1", "D1", LocalDate.now().plusDays(1), TaskStatus.TODO);
+        when(index.isReady()).thenReturn(true);
+        when(index.getRevision()).thenReturn("i1-7");
+        when(index.getSortedByDueDate()).thenReturn(List.of(task));
+        TaskServiceImpl indexed = new TaskServiceImpl(repository, taskMapper, batchProcessor, revisionRepository,
+                archiveRepository, eventPublisher, taskSearch, statsCounter, Optional.of(index));
+
+        Revisioned<List<TaskDTO>> tasks = indexed.getTaskList(null, TaskSort.DUE_DATE, false, revision -> false);
+        Revisioned<List<TaskDTO>> notModified = indexed.getTaskList(null, TaskSort.DUE_DATE, false, "i1-7"::equals);
+
+        assertEquals(new Revisioned<>("i1-7", List.of(task)), tasks);
+        assertEquals(new Revisioned<>("i1-7", null), notModified);
+        verify(index, times(1)).getSortedByDueDate();
+        verifyNoInteractions(revisionRepository, repository);
+    }
+
+    @Test
+    @DisplayName("Выборка по сроку без индекса идёт в базу, from позже before — ошибка")
+    void getTasksDueBetween_withoutIndex_shouldQueryRepository() {
+        LocalDate before = LocalDate.now().plusDays(7);
+        when(repository.findDtosDueBetween(null, null, before, PageRequest.ofSize(5))).thenReturn(List.of());
+
+        assertEquals(List.of(), service.getTasksDueBetween(null, null, before, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getTasksDueBetween(null, before.plusDays(1), before, 5));
     }
 
     @Test
@@ -174,4 +354,151 @@ class TaskServiceImplTest {
     void filterTasksByStatus_null_shouldThrow() {
         assertThrows(IllegalArgumentException.class, () -> service.filterTasksByStatus(null));
     }
+
+    @Test
+    @DisplayName("Страница задач возвращает курсор, если есть следующие строки")
+    void getTasksPage_hasMore_shouldReturnNextCursor() {
+        List<TaskDTO> tasks = List.of(
+                new TaskDTO(1, "T1", "D1", LocalDate.now().plusDays(1), TaskStatus.TODO),
+                new TaskDTO(2, "T2", "D2", LocalDate.now().plusDays(2), TaskStatus.TODO),
+                new TaskDTO(3, "T3", "D3", LocalDate.now().plusDays(3), TaskStatus.DONE)
+        );
+        when(repository.findKeysetPage(eq(0), any(Pageable.class))).thenReturn(tasks);
+
+        TaskPageDTO page = service.getTasksPage(null, TaskSort.ID, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertNotNull(page.getNext());
+        TaskCursor cursor = TaskCursor.decode(page.getNext(), TaskSort.ID);
+        assertEquals(2, cursor.getId());
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Последняя страница задач возвращается без курсора")
+    void getTasksPage_lastPage_shouldReturnNullCursor() {
+        LocalDate dueDate = LocalDate.now().plusDays(1);
+        String after = new TaskCursor(TaskSort.DUE_DATE, dueDate, null, 5).encode();
+        when(repository.findKeysetPageAfterDueDate(eq(dueDate), eq(5), any(Pageable.class)))
+                .thenReturn(List.of(new TaskDTO(6, "T6", "D6", dueDate, TaskStatus.TODO)));
+
+        TaskPageDTO page = service.getTasksPage(null, TaskSort.DUE_DATE, after, 10);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    @DisplayName("Страница по сроку добирается задачами без срока, курсор на такой задаче не падает")
+    void getTasksPage_sortedByDueDate_shouldContinueWithoutDueDate() {
+        LocalDate dueDate = LocalDate.now().plusDays(1);
+        String after = new TaskCursor(TaskSort.DUE_DATE, dueDate, null, 5).encode();
+        when(repository.findKeysetPageAfterDueDate(eq(dueDate), eq(5), any(Pageable.class)))
+                .thenReturn(List.of(new TaskDTO(6, "T6", "D6", dueDate, TaskStatus.TODO)));
+        when(repository.findKeysetPageWithoutDueDate(eq(0), any(Pageable.class)))
+                .thenReturn(List.of(new TaskDTO(2, "T2", "D2", null, TaskStatus.TODO),
+                        new TaskDTO(3, "T3", "D3", null, TaskStatus.DONE)));
+
+        TaskPageDTO page = service.getTasksPage(null, TaskSort.DUE_DATE, after, 2);
+
+        assertEquals(List.of(6, 2), page.getItems().stream().map(TaskDTO::getId).toList());
+        TaskCursor cursor = TaskCursor.decode(page.getNext(), TaskSort.DUE_DATE);
+        assertNull(cursor.getDueDate());
+        assertEquals(2, cursor.getId());
+
+        when(repository.findKeysetPageWithoutDueDate(eq(2), any(Pageable.class)))
+                .thenReturn(List.of(new TaskDTO(3, "T3", "D3", null, TaskStatus.DONE)));
+
+        TaskPageDTO next = service.getTasksPage(null, TaskSort.DUE_DATE, page.getNext(), 2);
+
+        assertEquals(List.of(3), next.getItems().stream().map(TaskDTO::getId).toList());
+        assertNull(next.getNext());
+        verify(repository).findKeysetPageAfterDueDate(any(), anyInt(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Сортировка по статусу продолжает страницу следующим статусом")
+    void getTasksPage_sortedByStatus_shouldContinueWithNextStatus() {
+        String after = new TaskCursor(TaskSort.STATUS, null, TaskStatus.TODO, 7).encode();
+        when(repository.findKeysetPageByStatus(eq(TaskStatus.TODO), eq(7), any(Pageable.class)))
+                .thenReturn(List.of(new TaskDTO(9, "T9", "D9", LocalDate.now().plusDays(1), TaskStatus.TODO)));
+        when(repository.findKeysetPageByStatus(eq(TaskStatus.IN_PROGRESS), eq(0), any(Pageable.class)))
+                .thenReturn(List.of(new TaskDTO(2, "T2", "D2", LocalDate.now().plusDays(1), TaskStatus.IN_PROGRESS)));
+
+        TaskPageDTO page = service.getTasksPage(null, TaskSort.STATUS, after, 5);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(TaskStatus.IN_PROGRESS, page.getItems().get(1).getStatus());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    @DisplayName("Курсор от другой сортировки вызывает IllegalArgumentException")
+    void getTasksPage_cursorForOtherSort_shouldThrow() {
+        String after = new TaskCursor(TaskSort.ID, null, null, 5).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getTasksPage(null, TaskSort.DUE_DATE, after, 10));
+    }
+
+    @Test
+    @DisplayName("Пакет операций делится на чанки, упавший чанк помечается целиком")
+    void applyBatch_shouldSplitIntoChunks() {
+        ReflectionTestUtils.setField(service, "batchChunkSize", 2);
+        List<TaskBatchOperationDTO> operations = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            operations.add(new TaskBatchOperationDTO(TaskBatchOperationDTO.Operation.DELETE, i + 1, null, null, null, null));
+        }
+        when(batchProcessor.processChunk(anyList(), eq(0))).thenReturn(List.of(
+                TaskBatchResultDTO.success(0, TaskBatchOperationDTO.Operation.DELETE, 1),
+                TaskBatchResultDTO.success(1, TaskBatchOperationDTO.Operation.DELETE, 2)));
+        when(batchProcessor.processChunk(anyList(), eq(2))).thenThrow(new IllegalStateException("constraint"));
+        when(batchProcessor.processChunk(anyList(), eq(4))).thenReturn(List.of(
+                TaskBatchResultDTO.success(4, TaskBatchOperationDTO.Operation.DELETE, 5)));
+
+        List<TaskBatchResultDTO> results = service.applyBatch(operations);
+
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(2).isSuccess());
+        assertFalse(results.get(3).isSuccess());
+        assertEquals(4, results.get(3).getId());
+        assertTrue(results.get(4).isSuccess());
+        verify(batchProcessor, times(3)).processChunk(anyList(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Пустой пакет операций вызывает IllegalArgumentException")
+    void applyBatch_empty_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> service.applyBatch(List.of()));
+    }
+
+    @Test
+    @DisplayName("Поиск отдаёт страницу и курсор на следующую, если результатов больше limit")
+    void searchTasks_shouldPageWithCursor() {
+        LocalDate due = LocalDate.now().plusDays(1);
+        List<TaskDTO> found = List.of(
+                new TaskDTO(3, "Купить молоко", "", due, TaskStatus.TODO),
+                new TaskDTO(1, "Молоко и хлеб", "", due, TaskStatus.TODO),
+                new TaskDTO(7, "молоко", "", due, TaskStatus.DONE));
+        when(taskSearch.search("молоко", 0, 3)).thenReturn(found);
+
+        TaskPageDTO first = service.searchTasks("молоко", null, 2);
+
+        assertEquals(List.of(3, 1), first.getItems().stream().map(TaskDTO::getId).toList());
+        assertNotNull(first.getNext());
+
+        when(taskSearch.search("молоко", 2, 3)).thenReturn(List.of(found.get(2)));
+        TaskPageDTO second = service.searchTasks("молоко", first.getNext(), 2);
+
+        assertEquals(List.of(7), second.getItems().stream().map(TaskDTO::getId).toList());
+        assertNull(second.getNext());
+    }
+
+    @Test
+    @DisplayName("Пустой запрос поиска вызывает IllegalArgumentException")
+    void searchTasks_blankQuery_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> service.searchTasks(" ", null, 10));
+        verifyNoInteractions(taskSearch);
+    }
 }
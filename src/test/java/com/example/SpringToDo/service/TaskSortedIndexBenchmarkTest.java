@@ -0,0 +1,100 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Память TaskSortedIndex на миллион задач и время типичных запросов к нему.
+ * "задачи" — сами TaskDTO со строками, "индекс" — всё вместе с картой по id и двумя упорядоченными наборами.
+ * Запуск: ./gradlew benchmark --tests '*TaskSortedIndexBenchmarkTest' -Dbenchmark.tasks=1000000
+ */
+@Tag("benchmark")
+class TaskSortedIndexBenchmarkTest {
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    @Test
+    @DisplayName("Память и время запросов индекса")
+    void memoryAndQueries() throws Exception {
+        int count = Integer.getInteger("benchmark.tasks", 1_000_000);
+        TaskRepository repository = mock(TaskRepository.class);
+        TaskSortedIndex index = new TaskSortedIndex(repository);
+
+        //ссылка на список только через holder: заглушка Mockito удерживала бы его после загрузки
+        AtomicReference<List<TaskDTO>> database = new AtomicReference<>();
+        when(repository.findAllDtos()).thenAnswer(i -> database.get());
+
+        long baseline = usedHeap();
+        database.set(tasks(count));
+        long tasksBytes = usedHeap() - baseline;
+
+        long loadStart = System.nanoTime();
+        index.reload();
+        long loadNanos = System.nanoTime() - loadStart;
+        //индекс хранит копии, исходный список больше не нужен
+        database.set(List.of());
+        long indexBytes = usedHeap() - baseline;
+        assertThat(index.size()).isEqualTo(count);
+
+        double perMillion = 1_000_000.0 / count / (1024 * 1024);
+        System.out.printf("sorted index: tasks=%d load=%d ms; per 1M tasks: tasks %.0f MB, index total %.0f MB "
+                        + "(structures %.0f MB, %.0f bytes per task)%n",
+                count, loadNanos / 1_000_000, tasksBytes * perMillion, indexBytes * perMillion,
+                (indexBytes - tasksBytes) * perMillion, (double) (indexBytes - tasksBytes) / count);
+
+        LocalDate today = LocalDate.now();
+        report("top 100 by due date", () -> index.getDueBetween(null, null, null, 100));
+        report("TODO due before +7d, limit 1000",
+                () -> index.getDueBetween(TaskStatus.TODO, null, today.plusDays(7), 1000));
+        report("all sorted by due date", index::getSortedByDueDate);
+        report("all with status DONE", () -> index.getByStatus(TaskStatus.DONE));
+    }
+
+    private static void report(String name, Supplier<List<TaskDTO>> query) {
+        for (int i = 0; i < 5; i++) {
+            query.get();
+        }
+        int iterations = 20;
+        long start = System.nanoTime();
+        int rows = 0;
+        for (int i = 0; i < iterations; i++) {
+            rows = query.get().size();
+        }
+        System.out.printf("sorted index: %s: %d rows, %.3f ms%n", name, rows,
+                (System.nanoTime() - start) / 1e6 / iterations);
+    }
+
+    private static List<TaskDTO> tasks(int count) {
+        LocalDate today = LocalDate.now();
+        TaskStatus[] statuses = TaskStatus.values();
+        List<TaskDTO> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new TaskDTO(i + 1, "Task " + i, "Description " + i, today.plusDays(i % 365),
+                    statuses[i % statuses.length], 0L));
+        }
+        return tasks;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TaskSortedIndexTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+
+    private final TaskRepository repository = mock(TaskRepository.class);
+    private final TaskSortedIndex index = new TaskSortedIndex(repository);
+    private List<TaskDTO> database;
+
+    @BeforeEach
+    void setUp() {
+        database = new ArrayList<>(List.of(
+                task(1, TODAY.plusDays(5), TaskStatus.DONE, 0),
+                task(2, TODAY.plusDays(1), TaskStatus.TODO, 0),
+                task(3, TODAY.plusDays(3), TaskStatus.TODO, 0),
+                task(4, TODAY.plusDays(1), TaskStatus.IN_PROGRESS, 0),
+                task(5, null, TaskStatus.TODO, 0)));
+        when(repository.findAllDtos()).thenAnswer(i -> List.copyOf(database));
+        index.reload();
+    }
+
+    @Test
+    @DisplayName("Сортировки совпадают с запросами к базе")
+    void sortedReadsMatchDatabaseOrder() {
+        assertThat(ids(index.getAll())).containsExactly(1, 2, 3, 4, 5);
+        assertThat(ids(index.getSortedByDueDate())).containsExactly(2, 4, 3, 1, 5);
+        assertThat(ids(index.getSortedByStatus())).containsExactly(2, 3, 5, 4, 1);
+        assertThat(ids(index.getByStatus(TaskStatus.TODO))).containsExactly(2, 3, 5);
+        assertThat(ids(index.getByStatus(TaskStatus.DONE))).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Диапазон по сроку и первые N без задач без срока")
+    void dueRangeAndTopN() {
+        assertThat(ids(index.getDueBetween(null, null, TODAY.plusDays(4), 10))).containsExactly(2, 4, 3);
+        assertThat(ids(index.getDueBetween(null, TODAY.plusDays(2), null, 10))).containsExactly(3, 1);
+        assertThat(ids(index.getDueBetween(TaskStatus.TODO, null, null, 10))).containsExactly(2, 3);
+        assertThat(ids(index.getDueBetween(null, null, null, 2))).containsExactly(2, 4);
+        assertThat(index.getDueBetween(null, TODAY, TODAY, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Изменения после коммита перемещают задачу, устаревшая версия игнорируется")
+    void eventsUpdateIndex() {
+        index.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 3,
+                task(3, TODAY, TaskStatus.DONE, 2)));
+        index.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 3,
+                task(3, TODAY.plusDays(9), TaskStatus.TODO, 1)));
+        index.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, 2, null));
+        index.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, 6,
+                task(6, TODAY.plusDays(2), TaskStatus.TODO, 0)));
+
+        assertThat(ids(index.getSortedByDueDate())).containsExactly(3, 4, 6, 1, 5);
+        assertThat(ids(index.getByStatus(TaskStatus.TODO))).containsExactly(5, 6);
+        assertThat(ids(index.getByStatus(TaskStatus.DONE))).containsExactly(1, 3);
+    }
+
+    @Test
+    @DisplayName("Запоздавшее изменение не возвращает удалённую задачу, запоздавшее удаление не снимает восстановленную")
+    void outOfOrderEventsAfterDelete() {
+        index.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, 2, null, 1L));
+        index.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 2,
+                task(2, TODAY.plusDays(7), TaskStatus.DONE, 1)));
+
+        //задача 3 архивирована (версия 0) и возвращена из архива (версия 1), удаление пришло последним
+        index.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, 3,
+                task(3, TODAY.plusDays(3), TaskStatus.TODO, 1)));
+        index.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, 3, null, 0L));
+
+        assertThat(ids(index.getAll())).containsExactly(1, 3, 4, 5);
+        assertThat(ids(index.getSortedByDueDate())).containsExactly(4, 3, 1, 5);
+    }
+
+    @Test
+    @DisplayName("Ревизия индекса растёт с каждым изменением и не повторяется после перезагрузки")
+    void revisionFollowsAppliedChanges() {
+        String loaded = index.getRevision();
+
+        index.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, 2, null));
+        String changed = index.getRevision();
+        index.reload();
+
+        assertThat(changed).isNotEqualTo(loaded);
+        assertThat(index.getRevision()).isNotIn(loaded, changed);
+    }
+
+    @Test
+    @DisplayName("Сверка с базой находит расхождения и перезагружает индекс")
+    void reloadReportsMismatches() {
+        assertThat(index.reload()).isZero();
+
+        //изменения в базе мимо событий: новая задача, удалённая и изменённая
+        database.removeIf(task -> task.getId() == 1);
+        database.set(0, task(2, TODAY.plusDays(8), TaskStatus.TODO, 1));
+        database.add(task(7, TODAY, TaskStatus.TODO, 0));
+
+        assertThat(index.reload()).isEqualTo(3);
+        assertThat(ids(index.getSortedByDueDate())).containsExactly(7, 4, 3, 2, 5);
+        assertThat(index.reload()).isZero();
+    }
+
+    private static TaskDTO task(int id, LocalDate dueDate, TaskStatus status, long version) {
+        return new TaskDTO(id, "Task " + id, "", dueDate, status, version);
+    }
+
+    private static List<Integer> ids(List<TaskDTO> tasks) {
+        return tasks.stream().map(TaskDTO::getId).toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.SpringToDo.service;
+
+import com.example.SpringToDo.dto.TaskDTO;
+import com.example.SpringToDo.dto.TaskStatsDTO;
+import com.example.SpringToDo.dto.TaskStatsEntryDTO;
+import com.example.SpringToDo.event.TaskChangedEvent;
+import com.example.SpringToDo.model.TaskStatus;
+import com.example.SpringToDo.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TaskStatsCounterTest {
+    //среда: до воскресенья ещё четыре дня
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 4);
+
+    private TaskRepository repository;
+    private TaskStatsCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TaskRepository.class);
+        when(repository.findStatsEntries()).thenReturn(List.of(
+                new TaskStatsEntryDTO(1, TaskStatus.TODO, TODAY.minusDays(1), 0L),
+                new TaskStatsEntryDTO(2, TaskStatus.IN_PROGRESS, TODAY.plusDays(2), 0L),
+                new TaskStatsEntryDTO(3, TaskStatus.DONE, TODAY.minusDays(5), 0L),
+                new TaskStatsEntryDTO(4, TaskStatus.TODO, TODAY.plusDays(30), 0L)));
+        counter = new TaskStatsCounter(repository);
+        counter.reconcile();
+    }
+
+    @Test
+    @DisplayName("Сверка с базой даёт счётчики по статусам, просроченные и задачи недели")
+    void reconcile_countsFromDatabase() {
+        TaskStatsDTO stats = counter.getStats(TODAY);
+
+        assertThat(stats.getTotal()).isEqualTo(4);
+        assertThat(stats.getByStatus()).containsEntry(TaskStatus.TODO, 2L)
+                .containsEntry(TaskStatus.IN_PROGRESS, 1L)
+                .containsEntry(TaskStatus.DONE, 1L);
+        assertThat(stats.getOverdue()).isEqualTo(1);
+        assertThat(stats.getDueThisWeek()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("События меняют счётчики без чтения базы, повтор события ничего не меняет")
+    void onTaskChanged_updatesIncrementally() {
+        counter.getStats(TODAY);
+        TaskChangedEvent done = new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 1,
+                new TaskDTO(1, "t", "", TODAY.minusDays(1), TaskStatus.DONE));
+        counter.onTaskChanged(done);
+        counter.onTaskChanged(done);
+        counter.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, 5,
+                new TaskDTO(5, "t", "", TODAY, TaskStatus.TODO)));
+        counter.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, 4, null));
+
+        TaskStatsDTO stats = counter.getStats(TODAY);
+
+        assertThat(stats.getTotal()).isEqualTo(4);
+        assertThat(stats.getByStatus()).containsEntry(TaskStatus.TODO, 1L).containsEntry(TaskStatus.DONE, 2L);
+        assertThat(stats.getOverdue()).isZero();
+        assertThat(stats.getDueThisWeek()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Событие со старой версией не меняет счётчики и не возвращает удалённую задачу")
+    void onTaskChanged_ignoresStaleVersions() {
+        counter.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 1,
+                new TaskDTO(1, "t", "", TODAY.minusDays(1), TaskStatus.DONE, 2L)));
+        counter.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 1,
+                new TaskDTO(1, "t", "", TODAY.minusDays(1), TaskStatus.IN_PROGRESS, 1L)));
+        counter.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, 4, null, 1L));
+        counter.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 4,
+                new TaskDTO(4, "t", "", TODAY.plusDays(30), TaskStatus.TODO, 1L)));
+
+        TaskStatsDTO stats = counter.getStats(TODAY);
+
+        assertThat(stats.getTotal()).isEqualTo(3);
+        assertThat(stats.getByStatus()).containsEntry(TaskStatus.TODO, 0L)
+                .containsEntry(TaskStatus.IN_PROGRESS, 1L)
+                .containsEntry(TaskStatus.DONE, 2L);
+        assertThat(stats.getOverdue()).isZero();
+    }
+
+    @Test
+    @DisplayName("Со сменой дня просроченные и задачи недели пересчитываются")
+    void getStats_nextWeek_recountsDueDates() {
+        TaskStatsDTO stats = counter.getStats(TODAY.plusDays(7));
+
+        assertThat(stats.getOverdue()).isEqualTo(2);
+        assertThat(stats.getDueThisWeek()).isZero();
+    }
+}
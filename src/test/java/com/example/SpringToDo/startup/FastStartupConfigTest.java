@@ -0,0 +1,37 @@
+package com.example.SpringToDo.startup;
+
+import com.example.SpringToDo.controller.TaskController;
+import com.example.SpringToDo.controller.WebController;
+import com.example.SpringToDo.event.TaskEventBus;
+import com.example.SpringToDo.search.InMemoryTaskSearch;
+import com.example.SpringToDo.search.TaskSearch;
+import com.example.SpringToDo.service.TaskArchiver;
+import com.example.SpringToDo.service.TaskIngestQueue;
+import com.example.SpringToDo.service.TaskServiceImpl;
+import com.example.SpringToDo.service.TaskStatsCounter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FastStartupConfigTest {
+
+    @Test
+    @DisplayName("REST API и бины со стартовой загрузкой, расписанием или событиями не откладываются")
+    void eagerBeans() {
+        assertThat(FastStartupConfig.isEager(TaskController.class)).isTrue();
+        assertThat(FastStartupConfig.isEager(TaskStatsCounter.class)).isTrue();
+        assertThat(FastStartupConfig.isEager(TaskArchiver.class)).isTrue();
+        assertThat(FastStartupConfig.isEager(TaskEventBus.class)).isTrue();
+        assertThat(FastStartupConfig.isEager(TaskIngestQueue.class)).isTrue();
+        assertThat(FastStartupConfig.isEager(TaskSearch.class)).isTrue();
+        assertThat(FastStartupConfig.isEager(InMemoryTaskSearch.class)).isTrue();
+    }
+
+    @Test
+    @DisplayName("HTML-страницы и прочие бины создаются при первом обращении")
+    void lazyBeans() {
+        assertThat(FastStartupConfig.isEager(WebController.class)).isFalse();
+        assertThat(FastStartupConfig.isEager(TaskServiceImpl.class)).isFalse();
+    }
+}